@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.extended.ExtendedControl;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+
+/**
+ * Measures the bytes the FX application thread allocates per change of a control
+ * in steady state, including the pulses that follow the change, i.e. transitions,
+ * animation timers, css, layout and the synchronization of the scene graph.
+ * Every scenario changes its control from an AnimationTimer every few pulses, so
+ * that a transition can finish before the next change, and the allocated bytes of
+ * the FX application thread are sampled from pulse to pulse.
+ * Every scenario has an absolute budget in bytes per change, exceeding it fails
+ * the check. A baseline, i.e. the csv of an earlier run on the same machine,
+ * tightens the budgets to its bytes per change plus the tolerance and must
+ * contain all measured scenarios.
+ *
+ * Arguments (all optional):
+ *   --scenarios CANVAS_HOVER,SWITCH_TOGGLE,LED_BLINK,EXTENDED_FOCUS
+ *   --changes   200
+ *   --out       allocation.csv
+ *   --baseline  allocation-baseline.csv
+ *   --tolerance 0.1
+ */
+public class AllocationBudgetCheck {
+    public enum Scenario {
+        // Measured headless (Monocle, prism.order=sw): LED_BLINK 2450, SWITCH_TOGGLE 6600 bytes per change.
+        // CANVAS_HOVER and EXTENDED_FOCUS draw text, which needs pango, their budgets are provisional.
+        CANVAS_HOVER(1, 16_384),
+        SWITCH_TOGGLE(6, 8_192),
+        LED_BLINK(2, 3_072),
+        EXTENDED_FOCUS(6, 65_536);
+
+        private final int  period;
+        private final long budget;
+
+
+        Scenario(final int period, final long budget) {
+            this.period = period;
+            this.budget = budget;
+        }
+
+
+        /**
+         * Returns the number of pulses between two changes, the transitions of the
+         * switch (70 ms) and the float label (60 ms) finish within 6 pulses.
+         */
+        public int getPeriod() { return period; }
+
+        /**
+         * Returns the maximum number of bytes per change.
+         */
+        public long getBudget() { return budget; }
+    }
+
+    private static final System.Logger                   LOGGER = System.getLogger(AllocationBudgetCheck.class.getName());
+    private static final String                          HEADER = "scenario,changes,pulses,bytesPerChange";
+    // Absolute slack in bytes per change for the few allocations of the pulse machinery that are not steady
+    private static final long                            SLACK  = 64;
+    private        final com.sun.management.ThreadMXBean threads;
+    private        final int                             changes;
+    private              Stage                           stage;
+
+
+    // ******************** Constructors **************************************
+    public AllocationBudgetCheck(final int changes) {
+        this.changes = changes;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the allocated bytes per change of the given scenario. The same
+     * number of changes is run as warmup before.
+     */
+    public double measure(final Scenario scenario) {
+        final Runnable       change       = createChange(scenario);
+        final int            period       = scenario.getPeriod();
+        final int            warmupPulses = changes * period;
+        final int            pulses       = changes * period;
+        final long[]         allocated    = new long[1];
+        final CountDownLatch done         = new CountDownLatch(1);
+        final AnimationTimer timer        = new AnimationTimer() {
+            private int  pulse;
+            private long last;
+
+            // Everything the FX application thread allocated since the last call belongs to the previous pulse
+            @Override public void handle(final long now) {
+                long bytes = allocatedBytes();
+                if (pulse > warmupPulses) { allocated[0] += bytes - last; }
+                last = bytes;
+                if (pulse == warmupPulses + pulses) {
+                    stop();
+                    done.countDown();
+                    return;
+                }
+                if (pulse % period == 0) { change.run(); }
+                pulse++;
+            }
+        };
+        FxToolkit.runAndWait(timer::start);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        FxToolkit.runAndWait(() -> stage.close());
+        return allocated[0] / (double) changes;
+    }
+
+    private long allocatedBytes() { return threads.getCurrentThreadAllocatedBytes(); }
+
+    private Runnable createChange(final Scenario scenario) {
+        final Runnable[] change = new Runnable[1];
+        FxToolkit.runAndWait(() -> {
+            stage = new Stage();
+            switch(scenario) {
+                case CANVAS_HOVER -> {
+                    // The hovered control redraws itself from its own animation timer
+                    CanvasControl control = new CanvasControl("Hover");
+                    show(control);
+                    control.handleHover(true);
+                    change[0] = () -> {};
+                }
+                case SWITCH_TOGGLE -> {
+                    CustomControl control = new CustomControl(SkinType.SWITCH);
+                    show(control);
+                    change[0] = () -> control.setState(!control.getState());
+                }
+                case LED_BLINK -> {
+                    CustomControl control = new CustomControl(SkinType.LED);
+                    show(control);
+                    change[0] = () -> control.setState(!control.getState());
+                }
+                case EXTENDED_FOCUS -> {
+                    ExtendedControl first  = new ExtendedControl("First");
+                    ExtendedControl second = new ExtendedControl("Second");
+                    show(new VBox(first, second));
+                    change[0] = () -> {
+                        if (first.isFocused()) {
+                            second.requestFocus();
+                        } else {
+                            first.requestFocus();
+                        }
+                    };
+                }
+            }
+        });
+        return change[0];
+    }
+
+    private void show(final Parent content) {
+        VBox root = new VBox(content);
+        stage.setScene(new Scene(root, 300, 200));
+        stage.show();
+        root.applyCss();
+        root.layout();
+    }
+
+    /**
+     * Returns the scenarios whose bytes per change exceed their budget or, if a
+     * baseline is given, the ones of the baseline by more than the given
+     * tolerance, e.g. 0.1 for 10%. A scenario that is missing in the baseline
+     * is reported as well.
+     */
+    public static List<String> compare(final Map<Scenario, Double> results, final Path baseline, final double tolerance) throws IOException {
+        Map<String, Double> expected = new HashMap<>();
+        if (null != baseline) {
+            List<String> lines = Files.readAllLines(baseline, StandardCharsets.UTF_8);
+            for (int i = 1; i < lines.size(); i++) {
+                String[] values = lines.get(i).split(",");
+                if (values.length < 4) { continue; }
+                expected.put(values[0], Double.parseDouble(values[3]));
+            }
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<Scenario, Double> entry : results.entrySet()) {
+            Scenario scenario = entry.getKey();
+            double   bytes    = entry.getValue();
+            if (bytes > scenario.getBudget()) {
+                regressions.add(String.format(Locale.US, "%s %.1f > %d bytes budget", scenario, bytes, scenario.getBudget()));
+            }
+            if (null == baseline) { continue; }
+            Double baselineBytes = expected.get(scenario.name());
+            if (null == baselineBytes) {
+                regressions.add(scenario + " missing in baseline " + baseline);
+            } else if (bytes > baselineBytes * (1 + tolerance) + SLACK) {
+                regressions.add(String.format(Locale.US, "%s %.1f > %.1f bytes baseline", scenario, bytes, baselineBytes));
+            }
+        }
+        return regressions;
+    }
+
+    private void write(final Map<Scenario, Double> results, final Path out) throws IOException {
+        if (null == out) { return; }
+        if (null != out.getParent()) { Files.createDirectories(out.getParent()); }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            writer.println(HEADER);
+            for (Map.Entry<Scenario, Double> entry : results.entrySet()) {
+                writer.println(String.format(Locale.US, "%s,%d,%d,%.1f", entry.getKey(), changes, changes * entry.getKey().getPeriod(), entry.getValue()));
+            }
+        }
+        LOGGER.log(System.Logger.Level.INFO, "Results written to " + out.toAbsolutePath());
+    }
+
+
+    // ******************** Main **********************************************
+    public static void main(final String[] args) throws IOException {
+        Scenario[] scenarios = Scenario.values();
+        int        changes   = 200;
+        Path       out       = null;
+        Path       baseline  = null;
+        double     tolerance = 0.1;
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch(args[i]) {
+                case "--scenarios" -> scenarios = Arrays.stream(value.split(",")).map(String::trim).map(Scenario::valueOf).toArray(Scenario[]::new);
+                case "--changes"   -> changes   = Integer.parseInt(value);
+                case "--out"       -> out       = Paths.get(value);
+                case "--baseline"  -> baseline  = Paths.get(value);
+                case "--tolerance" -> tolerance = Double.parseDouble(value);
+                default            -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        FxToolkit.start();
+        AllocationBudgetCheck check   = new AllocationBudgetCheck(changes);
+        Map<Scenario, Double> results = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : scenarios) {
+            double bytes = check.measure(scenario);
+            LOGGER.log(System.Logger.Level.INFO, String.format(Locale.US, "%-15s %10.1f bytes/change", scenario, bytes));
+            results.put(scenario, bytes);
+        }
+        check.write(results, out);
+        Platform.exit();
+        List<String> regressions = compare(results, baseline, tolerance);
+        if (!regressions.isEmpty()) {
+            LOGGER.log(System.Logger.Level.ERROR, "Allocation budget exceeded: " + String.join(", ", regressions));
+            System.exit(1);
+        }
+    }
+}
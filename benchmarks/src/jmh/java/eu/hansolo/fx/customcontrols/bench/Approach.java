@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.combined.CombinedControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.extended.ExtendedControl;
+import eu.hansolo.fx.customcontrols.regionbased.RegionControl;
+import eu.hansolo.fx.customcontrols.restyled.Switch;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+
+/**
+ * The six approaches to create a custom control that are compared in this project
+ * together with the hover, press and state change workload of each approach.
+ * Controls without an own interaction api get the hover and pressed pseudo classes
+ * set directly, which is what the scene would do for a real mouse.
+ */
+public enum Approach {
+    RESTYLED(() -> new Switch("Switch")) {
+        @Override public void changeState(final Node node, final Random rnd) {
+            Switch control = (Switch) node;
+            control.setSelected(!control.isSelected());
+        }
+    },
+    COMBINED(CombinedControl::new) {
+        @Override public void changeState(final Node node, final Random rnd) { ((CombinedControl) node).setValue(rnd.nextDouble() * 100); }
+        @Override public void press(final Node node, final boolean pressed) {
+            super.press(node, pressed);
+            if (pressed) {
+                CombinedControl control = (CombinedControl) node;
+                control.setUnit(control.getQuantity().next(control.getUnit()));
+            }
+        }
+    },
+    EXTENDED(() -> new ExtendedControl("Prompt")) {
+        @Override public void changeState(final Node node, final Random rnd) {
+            ExtendedControl control = (ExtendedControl) node;
+            control.setText(control.getText().isEmpty() ? Integer.toString(rnd.nextInt(1000)) : "");
+        }
+    },
+    CONTROL_SKIN(() -> new CustomControl(SkinType.LED)) {
+        @Override public void changeState(final Node node, final Random rnd) {
+            CustomControl control = (CustomControl) node;
+            control.setState(!control.getState());
+        }
+    },
+    REGION(RegionControl::new) {
+        @Override public void changeState(final Node node, final Random rnd) {
+            RegionControl control = (RegionControl) node;
+            control.setState(!control.getState());
+        }
+        @Override public void hover(final Node node, final boolean hovered) { ((RegionControl) node).handleHover(hovered); }
+        @Override public void press(final Node node, final boolean pressed) {
+            if (pressed) {
+                ((RegionControl) node).handlePress(null);
+            } else {
+                ((RegionControl) node).handleRelease(null);
+            }
+        }
+    },
+    CANVAS(() -> new CanvasControl("Canvas")) {
+        @Override public void changeState(final Node node, final Random rnd) { ((CanvasControl) node).setText(Integer.toString(rnd.nextInt(1000))); }
+        @Override public void hover(final Node node, final boolean hovered) { ((CanvasControl) node).handleHover(hovered); }
+        @Override public void press(final Node node, final boolean pressed) {
+            if (pressed) {
+                ((CanvasControl) node).handlePress(null);
+            } else {
+                ((CanvasControl) node).handleRelease(null);
+            }
+        }
+    };
+
+    private static final PseudoClass    HOVER_PSEUDO_CLASS   = PseudoClass.getPseudoClass("hover");
+    private static final PseudoClass    PRESSED_PSEUDO_CLASS = PseudoClass.getPseudoClass("pressed");
+    private        final Supplier<Node> factory;
+
+
+    // ******************** Constructors **************************************
+    Approach(final Supplier<Node> factory) {
+        this.factory = factory;
+    }
+
+
+    // ******************** Methods *******************************************
+    public Node create() { return factory.get(); }
+
+    public abstract void changeState(Node node, Random rnd);
+
+    public void hover(final Node node, final boolean hovered) { node.pseudoClassStateChanged(HOVER_PSEUDO_CLASS, hovered); }
+
+    public void press(final Node node, final boolean pressed) { node.pseudoClassStateChanged(PRESSED_PSEUDO_CLASS, pressed); }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.extended.ExtendedControl;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+
+/**
+ * Construction of the controls that defer their internals until they are shown,
+ * i.e. the canvas, effects, particles and timer of the CanvasControl, the glow of
+ * the led, the transition of the switch and the prompt label and animations of
+ * the ExtendedControl, which only exist in its MaterialTextFieldSkin. The
+ * constructed benchmark creates controls that are never shown, the shown
+ * benchmark adds them to a shown scene and runs the css and layout pass that
+ * creates the skins and the deferred parts, which is the cost of showing a
+ * control the first time.
+ * The gc profiler reports the allocated bytes per instance (gc.alloc.rate.norm),
+ * the retained bytes are reported by the footprint suite.
+ */
+@State(Scope.Thread)
+public class ConstructionBenchmark {
+    private static final int            BATCH = 100;
+    @Param({ "CANVAS", "LED", "SWITCH", "EXTENDED" })
+    private              String         family;
+    private              Supplier<Node> factory;
+    private              Node[]         controls;
+    private              FlowPane       root;
+    private              Stage          stage;
+
+
+    @Setup(Level.Trial) public void setup() {
+        FxToolkit.start();
+        switch(family) {
+            case "CANVAS"   -> factory = () -> new CanvasControl("Canvas");
+            case "LED"      -> factory = () -> new CustomControl(SkinType.LED);
+            case "SWITCH"   -> factory = () -> new CustomControl(SkinType.SWITCH);
+            case "EXTENDED" -> factory = () -> new ExtendedControl("Extended");
+            default         -> throw new IllegalArgumentException("Unknown family " + family);
+        }
+        controls = new Node[BATCH];
+        FxToolkit.runAndWait(() -> {
+            root  = new FlowPane();
+            stage = new Stage();
+            stage.setScene(new Scene(root, 1280, 800));
+            stage.show();
+        });
+    }
+
+    @TearDown(Level.Trial) public void tearDown() { FxToolkit.runAndWait(() -> stage.close()); }
+
+    @Setup(Level.Invocation) public void clear() {
+        Arrays.fill(controls, null);
+        FxToolkit.runAndWait(() -> root.getChildren().clear());
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public Node[] constructed() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { controls[i] = factory.get(); }
+        });
+        return controls;
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public Node[] shown() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { controls[i] = factory.get(); }
+            root.getChildren().setAll(controls);
+            root.applyCss();
+            root.layout();
+        });
+        return controls;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+/**
+ * Time of a full css pass over a scene with the given number of controls of one
+ * approach. Toggling a style class of the root forces css to be reapplied to all
+ * controls.
+ */
+@State(Scope.Thread)
+public class CssBenchmark {
+    @Param({ "RESTYLED", "COMBINED", "EXTENDED", "CONTROL_SKIN", "REGION", "CANVAS" })
+    public  Approach approach;
+    @Param({ "100" })
+    public  int      count;
+    private FlowPane root;
+    private boolean  toggle;
+
+
+    @Setup(Level.Trial) public void setup() {
+        FxToolkit.start();
+        FxToolkit.runAndWait(() -> {
+            root = new FlowPane();
+            for (int i = 0; i < count; i++) { root.getChildren().add(approach.create()); }
+            new Scene(root, 800, 600);
+            root.applyCss();
+        });
+    }
+
+    @Benchmark public void applyCss() {
+        FxToolkit.runAndWait(() -> {
+            toggle = !toggle;
+            root.getStyleClass().setAll(toggle ? "benchmark-a" : "benchmark-b");
+            root.applyCss();
+        });
+    }
+}
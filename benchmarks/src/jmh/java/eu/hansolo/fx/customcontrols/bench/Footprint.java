@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+
+/**
+ * Footprint of a number of instances of one kind of control. The retained heap is
+ * measured twice, once after construction and once after the controls were added
+ * to a scene and css and layout were applied, which is when skins and lazily
+ * created internals exist. The scene is never shown so rendering is not part of it.
+ */
+public final class Footprint {
+    public  static final String HEADER = "name,instances,nodes,nodesPerInstance,constructionMs,cssMs,layoutMs,constructedBytes,constructedBytesPerInstance,retainedBytes,retainedBytesPerInstance";
+    private        final String name;
+    private        final int    instances;
+    private        final int    nodes;
+    private        final long   constructionNanos;
+    private        final long   cssNanos;
+    private        final long   layoutNanos;
+    private        final long   constructedBytes;
+    private        final long   retainedBytes;
+
+
+    // ******************** Constructors **************************************
+    private Footprint(final String name, final int instances, final int nodes, final long constructionNanos, final long cssNanos, final long layoutNanos,
+                      final long constructedBytes, final long retainedBytes) {
+        this.name              = name;
+        this.instances         = instances;
+        this.nodes             = nodes;
+        this.constructionNanos = constructionNanos;
+        this.cssNanos          = cssNanos;
+        this.layoutNanos       = layoutNanos;
+        this.constructedBytes  = constructedBytes;
+        this.retainedBytes     = retainedBytes;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Creates the given number of controls with the factory on the FX application
+     * thread and measures their footprint. Must not be called on the FX application
+     * thread because the heap is measured in between.
+     */
+    public static Footprint measure(final String name, final int instances, final Supplier<? extends Node> factory) {
+        final Node[]     controls = new Node[instances];
+        final FlowPane[] root     = new FlowPane[1];
+
+        long heapBefore = usedHeap();
+
+        long start = System.nanoTime();
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < instances; i++) { controls[i] = factory.get(); }
+        });
+        long constructionNanos = System.nanoTime() - start;
+        long constructedBytes  = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        FxToolkit.runAndWait(() -> {
+            root[0] = new FlowPane(controls);
+            new Scene(root[0], 1280, 800);
+            root[0].applyCss();
+        });
+        long cssNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        FxToolkit.runAndWait(() -> root[0].layout());
+        long layoutNanos = System.nanoTime() - start;
+
+        long retainedBytes = usedHeap() - heapBefore;
+        int  nodes         = countNodes(root[0]) - 1;
+
+        FxToolkit.runAndWait(() -> root[0].getChildren().clear());
+        Arrays.fill(controls, null);
+        return new Footprint(name, instances, nodes, constructionNanos, cssNanos, layoutNanos, constructedBytes, retainedBytes);
+    }
+
+    public static long usedHeap() {
+        for (int i = 0; i < 3; i++) { System.gc(); }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static int countNodes(final Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) { count += countNodes(child); }
+        }
+        return count;
+    }
+
+    public String getName() { return name; }
+
+    public int getInstances() { return instances; }
+
+    public int getNodes() { return nodes; }
+
+    public double getNodesPerInstance() { return (double) nodes / instances; }
+
+    public long getConstructionNanos() { return constructionNanos; }
+
+    public long getCssNanos() { return cssNanos; }
+
+    public long getLayoutNanos() { return layoutNanos; }
+
+    public long getConstructedBytes() { return constructedBytes; }
+
+    public long getConstructedBytesPerInstance() { return constructedBytes / instances; }
+
+    public long getRetainedBytes() { return retainedBytes; }
+
+    public long getRetainedBytesPerInstance() { return retainedBytes / instances; }
+
+    public String toCsv() {
+        return String.format(Locale.US, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%d,%d,%d,%d", name, instances, nodes, getNodesPerInstance(), constructionNanos / 1e6,
+                             cssNanos / 1e6, layoutNanos / 1e6, constructedBytes, getConstructedBytesPerInstance(), retainedBytes, getRetainedBytesPerInstance());
+    }
+
+    @Override public String toString() {
+        return String.format(Locale.US, "%-16s %9d %8.2f %12.1f %9.1f %9.1f %12d %12d", name, instances, getNodesPerInstance(), constructionNanos / 1e6,
+                             cssNanos / 1e6, layoutNanos / 1e6, getConstructedBytesPerInstance(), getRetainedBytesPerInstance());
+    }
+}
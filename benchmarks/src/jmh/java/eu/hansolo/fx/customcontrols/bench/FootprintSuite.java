@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.extended.LegacyExtendedControl;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * Reports the node count, css and layout time and the retained bytes per instance
+ * for a number of instances of each control family. Every case is measured once
+ * with a few instances before, so that class loading and shared stylesheets are
+ * not counted. With a baseline, which is the csv of an earlier run, the suite
+ * fails if the bytes per instance of a case grew by more than the tolerance.
+ *
+ * Arguments (all optional):
+ *   --instances 10000
+ *   --cases     RESTYLED,COMBINED,EXTENDED,CONTROL_SKIN,REGION,CANVAS,CONTROL_SKIN_SWITCH,EXTENDED_HBOX_TEXT
+ *   --out       footprint.csv
+ *   --baseline  footprint-baseline.csv
+ *   --tolerance 0.1
+ */
+public class FootprintSuite {
+    private static final System.Logger                         LOGGER = System.getLogger(FootprintSuite.class.getName());
+    private static final int                                   WARMUP = 100;
+    // Absolute slack in bytes per instance for the noise of the heap measurement
+    private static final long                                  SLACK  = 16;
+    private        final Map<String, Supplier<? extends Node>> cases;
+    private        final int                                   instances;
+    private        final Path                                  out;
+
+
+    // ******************** Constructors **************************************
+    public FootprintSuite(final Map<String, Supplier<? extends Node>> cases, final int instances, final Path out) {
+        this.cases     = cases;
+        this.instances = instances;
+        this.out       = out;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static Map<String, Supplier<? extends Node>> createCases() {
+        Map<String, Supplier<? extends Node>> cases = new LinkedHashMap<>();
+        // The canvas, effects and particles of CANVAS are only created on the first layout, compare the bytes per instance before and after
+        for (Approach approach : Approach.values()) { cases.put(approach.name(), approach::create); }
+        cases.put("CONTROL_SKIN_SWITCH", () -> new CustomControl(SkinType.SWITCH));
+        // The float label in an HBox plus a css border underline, as it was before the MaterialTextFieldSkin
+        cases.put("EXTENDED_HBOX_TEXT", () -> new LegacyExtendedControl("Prompt"));
+        return cases;
+    }
+
+    public List<Footprint> run() {
+        FxToolkit.start();
+        List<Footprint> results = new ArrayList<>();
+        LOGGER.log(System.Logger.Level.INFO, String.format(Locale.US, "%-16s %9s %8s %12s %9s %9s %12s %12s",
+                                                           "case", "instances", "nodes/i", "construct ms", "css ms", "layout ms", "bytes/i new", "bytes/i laid"));
+        for (Map.Entry<String, Supplier<? extends Node>> entry : cases.entrySet()) {
+            Footprint.measure(entry.getKey(), WARMUP, entry.getValue());
+            Footprint footprint = Footprint.measure(entry.getKey(), instances, entry.getValue());
+            LOGGER.log(System.Logger.Level.INFO, footprint.toString());
+            results.add(footprint);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the cases whose constructed or retained bytes per instance exceed the
+     * ones of the baseline by more than the given tolerance, e.g. 0.1 for 10%.
+     */
+    public static List<String> compare(final List<Footprint> results, final Path baseline, final double tolerance) throws IOException {
+        Map<String, long[]> expected = new HashMap<>();
+        List<String>        lines    = Files.readAllLines(baseline, StandardCharsets.UTF_8);
+        for (int i = 1; i < lines.size(); i++) {
+            String[] values = lines.get(i).split(",");
+            if (values.length < 11) { continue; }
+            expected.put(values[0], new long[] { Long.parseLong(values[8]), Long.parseLong(values[10]) });
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Footprint footprint : results) {
+            long[] bytes = expected.get(footprint.getName());
+            if (null == bytes) { continue; }
+            if (footprint.getConstructedBytesPerInstance() > bytes[0] * (1 + tolerance) + SLACK) {
+                regressions.add(String.format(Locale.US, "%s constructed %d > %d bytes", footprint.getName(), footprint.getConstructedBytesPerInstance(), bytes[0]));
+            }
+            if (footprint.getRetainedBytesPerInstance() > bytes[1] * (1 + tolerance) + SLACK) {
+                regressions.add(String.format(Locale.US, "%s retained %d > %d bytes", footprint.getName(), footprint.getRetainedBytesPerInstance(), bytes[1]));
+            }
+        }
+        return regressions;
+    }
+
+    private void write(final List<Footprint> results) throws IOException {
+        if (null == out) { return; }
+        if (null != out.getParent()) { Files.createDirectories(out.getParent()); }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            writer.println(Footprint.HEADER);
+            for (Footprint footprint : results) { writer.println(footprint.toCsv()); }
+        }
+        LOGGER.log(System.Logger.Level.INFO, "Results written to " + out.toAbsolutePath());
+    }
+
+
+    // ******************** Main **********************************************
+    public static void main(final String[] args) throws IOException {
+        Map<String, Supplier<? extends Node>> cases     = createCases();
+        int                                   instances = 10_000;
+        Path                                  out       = null;
+        Path                                  baseline  = null;
+        double                                tolerance = 0.1;
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch(args[i]) {
+                case "--instances" -> instances = Integer.parseInt(value);
+                case "--cases"     -> cases.keySet().retainAll(Arrays.asList(value.split(",")));
+                case "--out"       -> out       = Paths.get(value);
+                case "--baseline"  -> baseline  = Paths.get(value);
+                case "--tolerance" -> tolerance = Double.parseDouble(value);
+                default            -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        FootprintSuite  suite   = new FootprintSuite(cases, instances, out);
+        List<Footprint> results = suite.run();
+        suite.write(results);
+        Platform.exit();
+        if (null == baseline) { return; }
+        List<String> regressions = compare(results, baseline, tolerance);
+        if (!regressions.isEmpty()) {
+            LOGGER.log(System.Logger.Level.ERROR, "Footprint regressions: " + String.join(", ", regressions));
+            System.exit(1);
+        }
+    }
+}
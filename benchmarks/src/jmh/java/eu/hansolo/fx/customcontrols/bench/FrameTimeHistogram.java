@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+
+/**
+ * Histogram of frame times with buckets of one millisecond up to the given
+ * limit and one overflow bucket. Recording a frame does not allocate, so it
+ * can be used from an AnimationTimer without disturbing the measurement.
+ */
+public class FrameTimeHistogram {
+    private final long[] buckets;
+    private       long   count;
+    private       long   totalNanos;
+    private       long   maxNanos;
+
+
+    // ******************** Constructors **************************************
+    public FrameTimeHistogram() {
+        this(100);
+    }
+    public FrameTimeHistogram(final int maxMillis) {
+        if (maxMillis < 1) { throw new IllegalArgumentException("maxMillis must be at least 1"); }
+        this.buckets = new long[maxMillis + 1];
+    }
+
+
+    // ******************** Methods *******************************************
+    public void record(final long nanos) {
+        int bucket = (int) Math.min(buckets.length - 1, nanos / 1_000_000);
+        buckets[bucket]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) { maxNanos = nanos; }
+    }
+
+    public long getCount() { return count; }
+
+    public double getMeanMillis() { return count == 0 ? 0 : totalNanos / 1e6 / count; }
+
+    public double getMaxMillis() { return maxNanos / 1e6; }
+
+    /**
+     * Returns the upper bound of the bucket that contains the given percentile
+     * in ms, frames in the overflow bucket are reported with the max frame time.
+     */
+    public double getPercentileMillis(final double percentile) {
+        if (count == 0) { return 0; }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long sum  = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            sum += buckets[i];
+            if (sum >= rank) { return i == buckets.length - 1 ? getMaxMillis() : Math.min(i + 1, getMaxMillis()); }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Returns the number of frames that took longer than the given number of ms.
+     */
+    public long getCountAbove(final int millis) {
+        long above = 0;
+        for (int i = Math.max(0, millis); i < buckets.length; i++) { above += buckets[i]; }
+        return above;
+    }
+
+    public String getSummary() {
+        return String.format(Locale.US, "frames %d, mean %.2f ms, p50 %.0f ms, p90 %.0f ms, p99 %.0f ms, max %.2f ms, > 17 ms %d",
+                             count, getMeanMillis(), getPercentileMillis(0.5), getPercentileMillis(0.9), getPercentileMillis(0.99), getMaxMillis(), getCountAbove(17));
+    }
+
+    /**
+     * Returns one line per used bucket with a bar of its frame count.
+     */
+    public String getChart() {
+        StringBuilder chart     = new StringBuilder();
+        long          maxBucket = 1;
+        for (long bucket : buckets) { maxBucket = Math.max(maxBucket, bucket); }
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) { continue; }
+            String label = i == buckets.length - 1 ? String.format(">= %3d ms", i) : String.format("%3d-%3d ms", i, i + 1);
+            chart.append(String.format(Locale.US, "%-10s %8d %s%n", label, buckets[i], "#".repeat((int) Math.max(1, buckets[i] * 50 / maxBucket))));
+        }
+        return chart.toString();
+    }
+
+    public void write(final Path path) throws IOException {
+        if (null != path.getParent()) { Files.createDirectories(path.getParent()); }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            writer.println("fromMs,toMs,frames");
+            for (int i = 0; i < buckets.length; i++) {
+                writer.println(i + "," + (i == buckets.length - 1 ? "" : String.valueOf(i + 1)) + "," + buckets[i]);
+            }
+        }
+    }
+}
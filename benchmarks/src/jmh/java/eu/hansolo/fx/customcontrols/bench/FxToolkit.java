@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.tools.QualityManager;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Starts the JavaFX toolkit once per benchmark fork and runs code on the FX
+ * application thread. Defaults to the headless Monocle platform with the
+ * software pipeline and a pinned quality level if nothing else was configured.
+ */
+public final class FxToolkit {
+    private static boolean started;
+
+
+    // ******************** Constructors **************************************
+    private FxToolkit() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized void start() {
+        if (started) { return; }
+        setIfAbsent("glass.platform", "Monocle");
+        setIfAbsent("monocle.platform", "Headless");
+        setIfAbsent("prism.order", "sw");
+        // The measurements must not depend on the adaptive quality of the controls
+        setIfAbsent(QualityManager.QUALITY_PROPERTY, "HIGH");
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException e) {
+            // Toolkit already running
+            latch.countDown();
+        }
+        await(latch);
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    /**
+     * Runs the given runnable on the FX application thread and waits until it
+     * finished. Exceptions will be rethrown on the calling thread.
+     */
+    public static void runAndWait(final Runnable runnable) {
+        if (Platform.isFxApplicationThread()) {
+            runnable.run();
+            return;
+        }
+        CountDownLatch             latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+        await(latch);
+        if (null != error.get()) { throw new IllegalStateException(error.get()); }
+    }
+
+    /**
+     * Waits until the given number of pulses happened, must not be called on the
+     * FX application thread.
+     */
+    public static void waitForPulses(final int count) {
+        CountDownLatch latch = new CountDownLatch(count);
+        AnimationTimer timer = new AnimationTimer() {
+            @Override public void handle(final long now) { latch.countDown(); }
+        };
+        runAndWait(timer::start);
+        await(latch);
+        runAndWait(timer::stop);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void setIfAbsent(final String key, final String value) {
+        if (null == System.getProperty(key)) { System.setProperty(key, value); }
+    }
+}
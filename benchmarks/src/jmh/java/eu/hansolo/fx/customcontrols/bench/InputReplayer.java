@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.tools.InputRecording;
+import eu.hansolo.fx.customcontrols.tools.InputRecording.Entry;
+import eu.hansolo.fx.customcontrols.tools.QualityManager;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseButton;
+import javafx.scene.robot.Robot;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Replays an input recording into a scene at the original or an accelerated
+ * speed and records the frame times, i.e. the time between two pulses, in a
+ * histogram. The events are injected with the JavaFX robot, so they take the
+ * same path through the glass layer as real input and the scene creates the
+ * enter and exit events of its nodes itself.
+ *
+ * Arguments:
+ *   --input recording.fxir (required)
+ *   --demo  eu.hansolo.fx.customcontrols.canvasbased.DemoCanvasBased (defaults to the source of the recording)
+ *   --speed 1.0 (2.0 replays twice as fast)
+ *   --out   frames.csv
+ */
+public class InputReplayer {
+    private static final System.Logger  LOGGER = System.getLogger(InputReplayer.class.getName());
+    private        final InputRecording recording;
+    private        final double         speed;
+
+
+    // ******************** Constructors **************************************
+    public InputReplayer(final InputRecording recording, final double speed) {
+        if (null == recording) { throw new IllegalArgumentException("Recording cannot be null"); }
+        if (speed <= 0) { throw new IllegalArgumentException("Speed must be greater than 0"); }
+        this.recording = recording;
+        this.speed     = speed;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Replays the recording into the given scene, which must be shown in a window,
+     * and returns the frame times of the replay. Blocks until all events are
+     * replayed, so it must not be called on the FX application thread.
+     */
+    public FrameTimeHistogram replay(final Scene scene) {
+        if (Platform.isFxApplicationThread()) { throw new IllegalStateException("Replay cannot be called on the FX application thread"); }
+        final FrameTimeHistogram histogram = new FrameTimeHistogram();
+        final Robot[]            robot     = new Robot[1];
+        final AnimationTimer     timer     = new AnimationTimer() {
+            private long lastPulse = -1;
+
+            @Override public void handle(final long now) {
+                if (lastPulse > 0) { histogram.record(now - lastPulse); }
+                lastPulse = now;
+            }
+        };
+        FxToolkit.runAndWait(() -> {
+            robot[0] = new Robot();
+            timer.start();
+        });
+
+        long start = System.nanoTime();
+        for (Entry entry : recording.getEntries()) {
+            long due = start + Math.round(entry.getTimeNanos() / speed);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) { LockSupport.parkNanos(wait); }
+            Platform.runLater(() -> apply(robot[0], scene, entry));
+        }
+        // Wait until the last events are processed and rendered
+        FxToolkit.runAndWait(() -> {});
+        FxToolkit.waitForPulses(3);
+        FxToolkit.runAndWait(timer::stop);
+        return histogram;
+    }
+
+    private static void apply(final Robot robot, final Scene scene, final Entry entry) {
+        Window window = scene.getWindow();
+        if (null == window) { return; }
+        double screenX = window.getX() + scene.getX() + entry.getX();
+        double screenY = window.getY() + scene.getY() + entry.getY();
+        switch(entry.getType()) {
+            case MOVE, ENTER, EXIT -> robot.mouseMove(screenX, screenY);
+            case PRESS             -> {
+                robot.mouseMove(screenX, screenY);
+                if (MouseButton.NONE != entry.getButton()) { robot.mousePress(entry.getButton()); }
+            }
+            case RELEASE           -> {
+                robot.mouseMove(screenX, screenY);
+                if (MouseButton.NONE != entry.getButton()) { robot.mouseRelease(entry.getButton()); }
+            }
+            case KEY_PRESS         -> robot.keyPress(entry.getKeyCode());
+            case KEY_RELEASE       -> robot.keyRelease(entry.getKeyCode());
+            case FOCUS             -> {
+                // Focus normally follows the replayed clicks and keys, only sync if it diverged
+                Node node = InputRecording.resolve(scene, entry.getPath());
+                if (null != node && node != scene.getFocusOwner()) { node.requestFocus(); }
+            }
+        }
+    }
+
+    /**
+     * Creates the given application and shows its scene in a window with the
+     * size of the recorded scene at the top left corner of the screen.
+     */
+    private static Scene startApplication(final String className, final InputRecording recording) throws ReflectiveOperationException {
+        final Application application = (Application) Class.forName(className).getDeclaredConstructor().newInstance();
+        final Stage[]     stage       = new Stage[1];
+        try {
+            application.init();
+        } catch (Exception e) {
+            throw new IllegalStateException("Init of " + className + " failed", e);
+        }
+        FxToolkit.runAndWait(() -> {
+            stage[0] = new Stage();
+            try {
+                application.start(stage[0]);
+            } catch (Exception e) {
+                throw new IllegalStateException("Start of " + className + " failed", e);
+            }
+            stage[0].setX(0);
+            stage[0].setY(0);
+            Scene scene = stage[0].getScene();
+            if (recording.getWidth() > 0 && recording.getHeight() > 0) {
+                stage[0].setWidth(stage[0].getWidth() - scene.getWidth() + recording.getWidth());
+                stage[0].setHeight(stage[0].getHeight() - scene.getHeight() + recording.getHeight());
+            }
+            stage[0].requestFocus();
+        });
+        FxToolkit.waitForPulses(3);
+        return stage[0].getScene();
+    }
+
+
+    // ******************** Main **********************************************
+    public static void main(final String[] args) throws IOException, ReflectiveOperationException {
+        Path   input = null;
+        String demo  = null;
+        double speed = 1.0;
+        Path   out   = null;
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch(args[i]) {
+                case "--input" -> input = Paths.get(value);
+                case "--demo"  -> demo  = value;
+                case "--speed" -> speed = Double.parseDouble(value);
+                case "--out"   -> out   = Paths.get(value);
+                default        -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (null == input) { throw new IllegalArgumentException("Missing argument --input"); }
+
+        InputRecording recording = InputRecording.read(input);
+        if (null == demo || demo.isBlank()) { demo = recording.getSource(); }
+        if (demo.isBlank()) { throw new IllegalArgumentException("Recording has no source, use --demo"); }
+
+        // Replay with the adaptive quality the users see unless a level was pinned
+        if (null == System.getProperty(QualityManager.QUALITY_PROPERTY)) { System.setProperty(QualityManager.QUALITY_PROPERTY, "adaptive"); }
+        FxToolkit.start();
+        Scene scene = startApplication(demo, recording);
+        LOGGER.log(System.Logger.Level.INFO, String.format(Locale.US, "Replaying %d events (%.1f s) into %s at %.1fx speed",
+                                                           recording.getEntries().size(), recording.getDurationNanos() / 1e9, demo, speed));
+        FrameTimeHistogram histogram = new InputReplayer(recording, speed).replay(scene);
+        LOGGER.log(System.Logger.Level.INFO, histogram.getSummary() + System.lineSeparator() + histogram.getChart());
+        if (null != out) {
+            histogram.write(out);
+            LOGGER.log(System.Logger.Level.INFO, "Frame times written to " + out.toAbsolutePath());
+        }
+        // Don't call stop() of the demos, they exit the VM
+        Platform.exit();
+    }
+}
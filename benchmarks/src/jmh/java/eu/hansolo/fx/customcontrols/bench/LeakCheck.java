@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Adds controls of every approach in chunks to a shown scene, hovers, presses and
+ * changes them, which also starts the particle animation of the canvas control,
+ * and removes them again without releasing anything explicitly. Fails if any of
+ * the controls is still reachable after all of them left the still shown scene.
+ *
+ * Arguments (all optional):
+ *   --instances  100000
+ *   --approaches RESTYLED,COMBINED,EXTENDED,CONTROL_SKIN,REGION,CANVAS
+ */
+public class LeakCheck {
+    private static final System.Logger LOGGER      = System.getLogger(LeakCheck.class.getName());
+    private static final int           CHUNK       = 5_000;
+    private static final int           GC_ATTEMPTS = 10;
+    private        final int           instances;
+    private        final Random        rnd;
+    private              Stage         stage;
+    private              FlowPane      root;
+
+
+    // ******************** Constructors **************************************
+    public LeakCheck(final int instances) {
+        this.instances = instances;
+        this.rnd       = new Random(42);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the number of controls of the given approach that are still
+     * reachable after they were added to and removed from the scene.
+     */
+    public int check(final Approach approach) {
+        final List<WeakReference<Node>> references = new ArrayList<>(instances);
+        FxToolkit.runAndWait(() -> {
+            root  = new FlowPane();
+            stage = new Stage();
+            stage.setScene(new Scene(root, 1280, 800));
+            stage.show();
+        });
+        for (int added = 0; added < instances; added += CHUNK) {
+            final int count = Math.min(CHUNK, instances - added);
+            FxToolkit.runAndWait(() -> {
+                Node[] controls = new Node[count];
+                for (int i = 0; i < count; i++) {
+                    controls[i] = approach.create();
+                    references.add(new WeakReference<>(controls[i]));
+                }
+                root.getChildren().addAll(controls);
+                root.applyCss();
+                root.layout();
+                // Leave the controls hovered and running, leaving the scene has to clean that up
+                for (Node control : controls) {
+                    approach.hover(control, true);
+                    approach.press(control, true);
+                    approach.press(control, false);
+                    approach.changeState(control, rnd);
+                }
+            });
+            FxToolkit.waitForPulses(2);
+            FxToolkit.runAndWait(() -> root.getChildren().clear());
+        }
+        // Pending pulses still reference the removed nodes
+        FxToolkit.waitForPulses(3);
+
+        // The scene stays shown, only references from outside of the scene graph are of interest
+        int reachable = countReachable(references);
+        for (int attempt = 0; attempt < GC_ATTEMPTS && reachable > 0; attempt++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            reachable = countReachable(references);
+        }
+        FxToolkit.runAndWait(() -> {
+            stage.close();
+            stage = null;
+            root  = null;
+        });
+        return reachable;
+    }
+
+    private static int countReachable(final List<WeakReference<Node>> references) {
+        int reachable = 0;
+        for (WeakReference<Node> reference : references) {
+            if (null != reference.get()) { reachable++; }
+        }
+        return reachable;
+    }
+
+
+    // ******************** Main **********************************************
+    public static void main(final String[] args) {
+        int        instances  = 100_000;
+        Approach[] approaches = Approach.values();
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch(args[i]) {
+                case "--instances"  -> instances  = Integer.parseInt(value);
+                case "--approaches" -> approaches = Arrays.stream(value.split(",")).map(String::trim).map(Approach::valueOf).toArray(Approach[]::new);
+                default             -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        FxToolkit.start();
+        LeakCheck    check    = new LeakCheck(instances);
+        List<String> failures = new ArrayList<>();
+        for (Approach approach : approaches) {
+            int reachable = check.check(approach);
+            LOGGER.log(System.Logger.Level.INFO, String.format("%-13s %d of %d controls still reachable", approach, reachable, instances));
+            if (reachable > 0) { failures.add(approach.name()); }
+        }
+        Platform.exit();
+        if (!failures.isEmpty()) {
+            LOGGER.log(System.Logger.Level.ERROR, "Controls leaked: " + String.join(", ", failures));
+            System.exit(1);
+        }
+    }
+}
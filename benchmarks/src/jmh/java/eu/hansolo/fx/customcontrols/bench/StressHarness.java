@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+
+/**
+ * Builds headless scenes with a growing number of instances of each approach and
+ * drives a seeded hover, press and state change workload. For every approach and
+ * size it reports construction time, time of the first css pass, node count,
+ * retained heap and two sets of percentiles. The frame time is measured from pulse
+ * to pulse and therefore includes rendering and the wait for the previous frame,
+ * it can not go below the pulse interval of 16.7 ms. The fx time is the time the
+ * FX application thread spends in a pulse for animation, css and layout only.
+ *
+ * Arguments (all optional):
+ *   --sizes      100,1000,10000,50000
+ *   --approaches RESTYLED,COMBINED,EXTENDED,CONTROL_SKIN,REGION,CANVAS
+ *   --frames     300
+ *   --seed       42
+ *   --out        results.csv
+ */
+public class StressHarness {
+    private static final System.Logger LOGGER = System.getLogger(StressHarness.class.getName());
+    private static final String        HEADER = "approach,instances,nodes,constructionMs,cssMs,retainedBytes,bytesPerInstance," +
+                                                "frameP50Ms,frameP90Ms,frameP99Ms,frameMaxMs,fxP50Ms,fxP90Ms,fxP99Ms,fxMaxMs";
+    private        final int[]         sizes;
+    private        final Approach[]    approaches;
+    private        final int           frames;
+    private        final long          seed;
+    private        final Path          out;
+
+
+    // ******************** Constructors **************************************
+    public StressHarness(final int[] sizes, final Approach[] approaches, final int frames, final long seed, final Path out) {
+        this.sizes      = sizes;
+        this.approaches = approaches;
+        this.frames     = frames;
+        this.seed       = seed;
+        this.out        = out;
+    }
+
+
+    // ******************** Methods *******************************************
+    public List<String> run() {
+        FxToolkit.start();
+        List<String> results = new ArrayList<>();
+        for (Approach approach : approaches) {
+            for (int size : sizes) { results.add(run(approach, size)); }
+        }
+        return results;
+    }
+
+    private String run(final Approach approach, final int size) {
+        final Node[]     controls = new Node[size];
+        final FlowPane[] root     = new FlowPane[1];
+        final Stage[]    stage    = new Stage[1];
+
+        long heapBefore = Footprint.usedHeap();
+
+        // Construction
+        long start = System.nanoTime();
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < size; i++) { controls[i] = approach.create(); }
+        });
+        long constructionNanos = System.nanoTime() - start;
+
+        // First css pass including skin creation
+        start = System.nanoTime();
+        FxToolkit.runAndWait(() -> {
+            root[0] = new FlowPane(controls);
+            new Scene(root[0], 1280, 800);
+            root[0].applyCss();
+        });
+        long cssNanos = System.nanoTime() - start;
+
+        FxToolkit.runAndWait(() -> {
+            stage[0] = new Stage();
+            stage[0].setScene(root[0].getScene());
+            stage[0].show();
+        });
+        FxToolkit.waitForPulses(3);
+
+        long retained = Footprint.usedHeap() - heapBefore;
+        int  nodes    = Footprint.countNodes(root[0]);
+
+        final double[] frameTimes = new double[frames];
+        final double[] fxTimes    = new double[frames];
+        drive(approach, controls, root[0].getScene(), frameTimes, fxTimes);
+
+        FxToolkit.runAndWait(() -> {
+            stage[0].close();
+            root[0].getChildren().clear();
+        });
+        Arrays.fill(controls, null);
+
+        Arrays.sort(frameTimes);
+        Arrays.sort(fxTimes);
+        LOGGER.log(System.Logger.Level.INFO, String.format(Locale.US, "%-13s %6d instances, %7d nodes, construction %.1f ms, css %.1f ms, %d bytes/instance, frame p50/p99/max %.2f/%.2f/%.2f ms, fx p50/p99/max %.2f/%.2f/%.2f ms",
+                                                           approach, size, nodes, constructionNanos / 1e6, cssNanos / 1e6, retained / size,
+                                                           percentile(frameTimes, 0.50), percentile(frameTimes, 0.99), max(frameTimes),
+                                                           percentile(fxTimes, 0.50), percentile(fxTimes, 0.99), max(fxTimes)));
+        return String.format(Locale.US, "%s,%d,%d,%.3f,%.3f,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                             approach, size, nodes, constructionNanos / 1e6, cssNanos / 1e6, retained, retained / size,
+                             percentile(frameTimes, 0.50), percentile(frameTimes, 0.90), percentile(frameTimes, 0.99), max(frameTimes),
+                             percentile(fxTimes, 0.50), percentile(fxTimes, 0.90), percentile(fxTimes, 0.99), max(fxTimes));
+    }
+
+    /**
+     * Changes 1% of the controls (at least one) per frame with a seeded random
+     * hover, press or state change and fills in the frame times, from the start of
+     * the previous pulse to the start of this one, and the fx times, from the start
+     * of the animation phase to the end of the layout phase, in ms.
+     */
+    private void drive(final Approach approach, final Node[] controls, final Scene scene, final double[] frameTimes, final double[] fxTimes) {
+        final Random         rnd         = new Random(seed);
+        final int            perFrame    = Math.max(1, controls.length / 100);
+        final long[]         pulseStart  = new long[1];
+        final int[]          frame       = { -1 };
+        final CountDownLatch done        = new CountDownLatch(1);
+        final Runnable       postLayout  = () -> {
+            if (frame[0] < 0 || frame[0] >= frames) { return; }
+            fxTimes[frame[0]] = (System.nanoTime() - pulseStart[0]) / 1e6;
+        };
+        final AnimationTimer timer       = new AnimationTimer() {
+            @Override public void handle(final long now) {
+                long pulse = System.nanoTime();
+                // The frame time of the last frame is only known when the next pulse starts
+                if (frame[0] >= 0 && frame[0] < frames) { frameTimes[frame[0]] = (pulse - pulseStart[0]) / 1e6; }
+                frame[0]++;
+                if (frame[0] >= frames) {
+                    done.countDown();
+                    return;
+                }
+                pulseStart[0] = pulse;
+                for (int i = 0; i < perFrame; i++) {
+                    Node control = controls[rnd.nextInt(controls.length)];
+                    switch(rnd.nextInt(3)) {
+                        case 0  -> approach.hover(control, rnd.nextBoolean());
+                        case 1  -> approach.press(control, rnd.nextBoolean());
+                        default -> approach.changeState(control, rnd);
+                    }
+                }
+            }
+        };
+        FxToolkit.runAndWait(() -> {
+            scene.addPostLayoutPulseListener(postLayout);
+            timer.start();
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        FxToolkit.runAndWait(() -> {
+            timer.stop();
+            scene.removePostLayoutPulseListener(postLayout);
+        });
+    }
+
+    private static double percentile(final double[] sorted, final double percentile) {
+        if (sorted.length == 0) { return 0; }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double max(final double[] sorted) { return sorted.length == 0 ? 0 : sorted[sorted.length - 1]; }
+
+    private void write(final List<String> results) throws IOException {
+        if (null == out) { return; }
+        if (null != out.getParent()) { Files.createDirectories(out.getParent()); }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            writer.println(HEADER);
+            results.forEach(writer::println);
+        }
+        LOGGER.log(System.Logger.Level.INFO, "Results written to " + out.toAbsolutePath());
+    }
+
+
+    // ******************** Main **********************************************
+    public static void main(final String[] args) throws IOException {
+        int[]      sizes      = { 100, 1_000, 10_000, 50_000 };
+        Approach[] approaches = Approach.values();
+        int        frames     = 300;
+        long       seed       = 42;
+        Path       out        = null;
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch(args[i]) {
+                case "--sizes"      -> sizes      = Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+                case "--approaches" -> approaches = Arrays.stream(value.split(",")).map(String::trim).map(Approach::valueOf).toArray(Approach[]::new);
+                case "--frames"     -> frames     = Integer.parseInt(value);
+                case "--seed"       -> seed       = Long.parseLong(value);
+                case "--out"        -> out        = Paths.get(value);
+                default             -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        StressHarness harness = new StressHarness(sizes, approaches, frames, seed, out);
+        harness.write(harness.run());
+        Platform.exit();
+    }
+}
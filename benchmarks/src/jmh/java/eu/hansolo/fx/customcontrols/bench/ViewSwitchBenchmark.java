@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.bench;
+
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.regionbased.RegionControl;
+import eu.hansolo.fx.customcontrols.tools.ControlPool;
+import eu.hansolo.fx.customcontrols.tools.Resettable;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+
+/**
+ * Switches a shown view of controls to a new set of controls, either created by
+ * the constructor or acquired from a ControlPool that the previous view released
+ * its controls to. Every switch includes the css and layout pass that creates the
+ * skins of new controls, so the difference is what the pool saves per control.
+ */
+@State(Scope.Thread)
+public class ViewSwitchBenchmark {
+    private static final int                  VIEW_SIZE = 500;
+    @Param({ "LED", "SWITCH", "REGION", "CANVAS" })
+    private              String               family;
+    private              Supplier<Node>       factory;
+    private              ControlPool<?>       pool;
+    private              FlowPane             root;
+    private              Stage                stage;
+    private              List<Node>           view;
+
+
+    @Setup(Level.Trial) public void setup() {
+        FxToolkit.start();
+        switch(family) {
+            case "LED"    -> setFactory(() -> new CustomControl(SkinType.LED));
+            case "SWITCH" -> setFactory(() -> new CustomControl(SkinType.SWITCH));
+            case "REGION" -> setFactory(RegionControl::new);
+            case "CANVAS" -> setFactory(() -> new CanvasControl("Canvas"));
+            default       -> throw new IllegalArgumentException("Unknown family " + family);
+        }
+        view = new ArrayList<>(VIEW_SIZE);
+        FxToolkit.runAndWait(() -> {
+            root  = new FlowPane();
+            stage = new Stage();
+            stage.setScene(new Scene(root, 1280, 800));
+            stage.show();
+        });
+    }
+
+    @TearDown(Level.Trial) public void tearDown() { FxToolkit.runAndWait(() -> stage.close()); }
+
+    @Benchmark @OperationsPerInvocation(VIEW_SIZE) public FlowPane created() {
+        FxToolkit.runAndWait(() -> {
+            root.getChildren().clear();
+            view.clear();
+            for (int i = 0; i < VIEW_SIZE; i++) { view.add(factory.get()); }
+            show();
+        });
+        return root;
+    }
+
+    @Benchmark @OperationsPerInvocation(VIEW_SIZE) public FlowPane pooled() {
+        FxToolkit.runAndWait(() -> {
+            root.getChildren().clear();
+            release(pool);
+            for (int i = 0; i < VIEW_SIZE; i++) { view.add(pool.acquire()); }
+            show();
+        });
+        return root;
+    }
+
+    private <T extends Node & Resettable> void setFactory(final Supplier<T> supplier) {
+        factory = supplier::get;
+        pool    = new ControlPool<>(supplier, VIEW_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Node & Resettable> void release(final ControlPool<T> pool) {
+        for (Node control : view) { pool.release((T) control); }
+        view.clear();
+    }
+
+    private void show() {
+        root.getChildren().setAll(view);
+        root.applyCss();
+        root.layout();
+    }
+}
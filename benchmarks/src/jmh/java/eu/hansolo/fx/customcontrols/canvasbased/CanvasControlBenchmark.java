@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.canvasbased;
+
+import eu.hansolo.fx.customcontrols.bench.FxToolkit;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+
+/**
+ * Redraws run in batches on the FX application thread of a shown stage, so the
+ * canvas command buffer is consumed by the pulses in between like in a real application.
+ */
+@State(Scope.Thread)
+public class CanvasControlBenchmark {
+    public enum Interaction { IDLE, HOVERED, PRESSED, PARTICLES }
+
+    private static final int                         BATCH = 100;
+    @Param({ "IDLE", "HOVERED", "PRESSED", "PARTICLES" })
+    public               Interaction                 interaction;
+    private              Stage                       stage;
+    private              CanvasControl               control;
+    private              CanvasControl.ImageParticle particle;
+
+
+    @Setup(Level.Trial) public void setup() {
+        FxToolkit.start();
+        FxToolkit.runAndWait(() -> {
+            control = new CanvasControl("Benchmark");
+            stage   = new Stage();
+            stage.setScene(new Scene(new StackPane(control), 268, 85));
+            stage.show();
+            control.applyCss();
+            control.layout();
+            switch(interaction) {
+                case HOVERED   -> control.handleHover(true);
+                case PRESSED   -> control.handlePress(null);
+                case PARTICLES -> control.setActive(true);
+                default        -> {}
+            }
+            particle = control.new ImageParticle(268, 85, new Image(CanvasControl.class.getResourceAsStream("bubble.png")));
+        });
+    }
+
+    @TearDown(Level.Trial) public void tearDown() {
+        FxToolkit.runAndWait(() -> {
+            stage.close();
+            control.dispose();
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void redraw() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { control.redraw(); }
+        });
+    }
+
+    // The particle is returned so JMH consumes its updated state
+    @Benchmark public Object particleUpdate() {
+        particle.update();
+        return particle;
+    }
+}
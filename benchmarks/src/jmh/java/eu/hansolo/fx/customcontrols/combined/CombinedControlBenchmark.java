@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.combined;
+
+import eu.hansolo.fx.customcontrols.bench.FxToolkit;
+import eu.hansolo.fx.customcontrols.tools.Numeric;
+import eu.hansolo.fx.customcontrols.tools.Quantity;
+import eu.hansolo.fx.customcontrols.tools.UnitConverter;
+import eu.hansolo.fx.customcontrols.tools.UnitRegistry;
+import javafx.scene.control.TextField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+
+/**
+ * Unit conversion, parsing and formatting used by the CombinedControl and the
+ * resulting text updates of the control itself.
+ */
+@State(Scope.Thread)
+public class CombinedControlBenchmark {
+    private static final int             BATCH = 100;
+    private static final int             SIZE  = 1024;
+    private              UnitConverter   converter;
+    private              double[]        src;
+    private              double[]        dst;
+    private              StringBuilder   textBuilder;
+    private              String          text;
+    private              double          value;
+    private              CombinedControl control;
+
+
+    @Setup(Level.Trial) public void setup() {
+        Quantity quantity = UnitRegistry.TEMPERATURE;
+        Random   rnd      = new Random(42);
+        converter   = quantity.getConverter(quantity.getBaseUnit(), quantity.getUnits().get(1));
+        src         = new double[SIZE];
+        dst         = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) { src[i] = rnd.nextDouble() * 200 - 50; }
+        textBuilder = new StringBuilder(32);
+        text        = "-123.45";
+        value       = 36.6;
+
+        FxToolkit.start();
+        // setUnit() only reformats a numeric text, an empty control would measure nothing but the button text
+        FxToolkit.runAndWait(() -> {
+            control = new CombinedControl(quantity);
+            control.setValue(value);
+        });
+        if (!Numeric.isNumber(((TextField) control.getChildren().get(0)).getText())) { throw new IllegalStateException("CombinedControl shows no value to convert"); }
+    }
+
+    @Benchmark public double convert() { return converter.convert(value); }
+
+    @Benchmark @OperationsPerInvocation(SIZE) public double[] convertArray() {
+        converter.convert(src, dst);
+        return dst;
+    }
+
+    @Benchmark public double parse() { return Numeric.parse(text); }
+
+    @Benchmark public StringBuilder format() {
+        textBuilder.setLength(0);
+        return Numeric.format(value, 2, textBuilder);
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void setValue() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { control.setValue(src[i]); }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void switchUnit() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { control.setUnit(control.getQuantity().next(control.getUnit())); }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.controlskinbased;
+
+import eu.hansolo.fx.customcontrols.bench.FxToolkit;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Skin creation and property changes of the led and switch skin, executed in
+ * batches on the FX application thread because the switch plays a transition.
+ */
+@State(Scope.Thread)
+public class SkinBenchmark {
+    private static final int           BATCH  = 100;
+    private static final Color[]       COLORS = { Color.RED, Color.LIME, Color.DODGERBLUE, Color.ORANGE };
+    private              CustomControl led;
+    private              CustomControl sw;
+    private              LedSkin       ledSkin;
+    private              SwitchSkin    switchSkin;
+
+
+    @Setup(Level.Trial) public void setup() {
+        FxToolkit.start();
+        FxToolkit.runAndWait(() -> {
+            led = new CustomControl(SkinType.LED);
+            led.setColor(Color.RED);
+            led.resize(16, 16);
+            ledSkin = new LedSkin(led);
+            led.setSkin(ledSkin);
+
+            sw = new CustomControl(SkinType.SWITCH);
+            sw.setColor(Color.RED);
+            switchSkin = new SwitchSkin(sw);
+            sw.setSkin(switchSkin);
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void createLedSkin(final Blackhole blackhole) {
+        FxToolkit.runAndWait(() -> {
+            CustomControl control = new CustomControl(SkinType.LED);
+            control.setColor(Color.RED);
+            for (int i = 0; i < BATCH; i++) {
+                LedSkin skin = new LedSkin(control);
+                blackhole.consume(skin);
+                skin.dispose();
+            }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void createSwitchSkin(final Blackhole blackhole) {
+        FxToolkit.runAndWait(() -> {
+            CustomControl control = new CustomControl(SkinType.SWITCH);
+            control.setColor(Color.RED);
+            for (int i = 0; i < BATCH; i++) {
+                SwitchSkin skin = new SwitchSkin(control);
+                blackhole.consume(skin);
+                skin.dispose();
+            }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void ledState() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { led.setState(!led.getState()); }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void ledColor() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { led.setColor(COLORS[i & 3]); }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void switchState() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { sw.setState(!sw.getState()); }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void switchColor() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { sw.setColor(COLORS[i & 3]); }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.extended;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.beans.property.ObjectProperty;
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableObjectProperty;
+import javafx.css.Styleable;
+import javafx.css.StyleableProperty;
+import javafx.css.StyleablePropertyFactory;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Scale;
+import javafx.util.Duration;
+
+import java.util.List;
+
+
+/**
+ * The ExtendedControl before the float label moved into the MaterialTextFieldSkin,
+ * it adds an HBox with a Text to the children of the default skin and draws the
+ * underline with a css border. Only used to compare the footprint of both.
+ */
+public class LegacyExtendedControl extends TextField {
+    private static final StyleablePropertyFactory<LegacyExtendedControl> FACTORY                       = new StyleablePropertyFactory<>(TextField.getClassCssMetaData());
+    private static final Color                                           DEFAULT_MATERIAL_DESIGN_COLOR = Color.web("#009688");
+    private static final Color                                           DEFAULT_PROMPT_TEXT_COLOR     = Color.web("#757575");
+    private static final double                                          STD_FONT_SIZE                 = 13;
+    private static final double                                          SMALL_FONT_SIZE               = 10;
+    private static final double                                          SMALL_SCALE                   = SMALL_FONT_SIZE / STD_FONT_SIZE;
+    private static final double                                          TOP_OFFSET_Y                  = 4;
+    private static final int                                             ANIMATION_DURATION            = 60;
+    private static final CssMetaData<LegacyExtendedControl, Color>       MATERIAL_DESIGN_COLOR         = FACTORY.createColorCssMetaData("-material-design-color", s -> s.materialDesignColor, DEFAULT_MATERIAL_DESIGN_COLOR, false);
+    private static final CssMetaData<LegacyExtendedControl, Color>       PROMPT_TEXT_COLOR             = FACTORY.createColorCssMetaData("-prompt-text-color", s -> s.promptTextColor, DEFAULT_PROMPT_TEXT_COLOR, false);
+    private static       String                                          userAgentStyleSheet;
+    private        final StyleableProperty<Color>                        materialDesignColor;
+    private        final StyleableProperty<Color>                        promptTextColor;
+    private              Text                                            promptText;
+    private              Scale                                           promptTextScale;
+    private              HBox                                            promptTextBox;
+    private              Timeline                                        floatUp;
+    private              Timeline                                        floatDown;
+    private              boolean                                         floating;
+    private              boolean                                         empty;
+
+
+    // ******************** Constructors **************************************
+    public LegacyExtendedControl() {
+        this("");
+    }
+    public LegacyExtendedControl(final String promptTextBox) {
+        super(promptTextBox);
+
+        materialDesignColor = new SimpleStyleableObjectProperty<>(MATERIAL_DESIGN_COLOR, this, "materialDesignColor");
+        promptTextColor     = new SimpleStyleableObjectProperty<>(PROMPT_TEXT_COLOR, this, "promptTextColor");
+
+        initGraphics();
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void initGraphics() {
+        getStyleClass().addAll("material-field");
+
+        empty = null == getText() || getText().isEmpty();
+
+        promptText = new Text(getPromptText());
+        promptText.getStyleClass().add("prompt-text");
+        promptText.setFont(Font.font(getFont().getFamily(), STD_FONT_SIZE));
+
+        // Scale around the left edge so that the label shrinks towards its start like a smaller font would
+        promptTextScale = new Scale(1, 1, 0, 0);
+        promptText.getTransforms().add(promptTextScale);
+
+        promptTextBox = new HBox(promptText);
+        promptTextBox.getStyleClass().add("material-field");
+
+        // The animations are built once and only replayed, they always start from the current values
+        floatUp   = new Timeline(new KeyFrame(Duration.millis(ANIMATION_DURATION),
+                                              new KeyValue(promptTextBox.translateYProperty(), -STD_FONT_SIZE - TOP_OFFSET_Y),
+                                              new KeyValue(promptTextScale.xProperty(), SMALL_SCALE),
+                                              new KeyValue(promptTextScale.yProperty(), SMALL_SCALE)));
+        floatDown = new Timeline(new KeyFrame(Duration.millis(ANIMATION_DURATION),
+                                              new KeyValue(promptTextBox.translateYProperty(), 0),
+                                              new KeyValue(promptTextScale.xProperty(), 1),
+                                              new KeyValue(promptTextScale.yProperty(), 1)));
+
+        floating = !isEditable() || isDisabled() || !empty;
+        if (floating) {
+            promptTextScale.setX(SMALL_SCALE);
+            promptTextScale.setY(SMALL_SCALE);
+            promptTextBox.setTranslateY(-STD_FONT_SIZE - TOP_OFFSET_Y);
+        }
+
+        getChildren().addAll(promptTextBox);
+    }
+
+    private void registerListeners() {
+        textProperty().addListener(o -> {
+            // Only a change between empty and non empty text can move the label
+            final boolean isEmpty = null == getText() || getText().isEmpty();
+            if (isEmpty == empty) { return; }
+            empty = isEmpty;
+            handleTextAndFocus(isFocused());
+        });
+        promptTextProperty().addListener(o -> promptText.setText(getPromptText()));
+        focusedProperty().addListener(o -> handleTextAndFocus(isFocused()));
+        promptTextColorProperty().addListener(o -> promptText.setFill(getPromptTextColor()));
+    }
+
+
+    // ******************** CSS Stylable Properties ***************************
+    public Color getMaterialDesignColor() { return materialDesignColor.getValue(); }
+    public void setMaterialDesignColor(final Color color) { materialDesignColor.setValue(color); }
+    public ObjectProperty<Color> materialDesignColorProperty() { return (ObjectProperty<Color>) materialDesignColor; }
+
+    public Color getPromptTextColor() { return promptTextColor.getValue(); }
+    public void setPromptTextColor(final Color color) { promptTextColor.setValue(color); }
+    public ObjectProperty<Color> promptTextColorProperty() { return (ObjectProperty<Color>) promptTextColor; }
+
+
+    // ******************** Misc **********************************************
+    private void handleTextAndFocus(final boolean isFocused) {
+        if (isFocused || !empty || isDisabled() || !isEditable()) {
+            if (!floating) {
+                floating = true;
+                floatDown.stop();
+                floatUp.playFromStart();
+            }
+            promptText.setFill(isFocused ? getMaterialDesignColor() : DEFAULT_PROMPT_TEXT_COLOR);
+        } else if (floating) {
+            floating = false;
+            floatUp.stop();
+            floatDown.playFromStart();
+            promptText.setFill(DEFAULT_PROMPT_TEXT_COLOR);
+        }
+    }
+
+
+    // ******************** Style related *************************************
+    @Override public String getUserAgentStylesheet() {
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = getClass().getResource("legacy-extended.css").toExternalForm(); }
+        return userAgentStyleSheet;
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() { return FACTORY.getCssMetaData(); }
+    @Override public List<CssMetaData<? extends Styleable, ?>> getControlCssMetaData() { return FACTORY.getCssMetaData(); }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.extended;
+
+import eu.hansolo.fx.customcontrols.bench.FxToolkit;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+
+/**
+ * Floating prompt text and underline updates of the MaterialTextFieldSkin when
+ * the text or the focus of an ExtendedControl changes.
+ */
+@State(Scope.Thread)
+public class MaterialTextFieldSkinBenchmark {
+    private static final int                   BATCH = 100;
+    private              Stage                 stage;
+    private              ExtendedControl       control;
+    private              MaterialTextFieldSkin skin;
+
+
+    @Setup(Level.Trial) public void setup() {
+        FxToolkit.start();
+        FxToolkit.runAndWait(() -> {
+            control = new ExtendedControl("Prompt");
+            skin    = new MaterialTextFieldSkin(control);
+            control.setSkin(skin);
+            stage   = new Stage();
+            stage.setScene(new Scene(new StackPane(control), 200, 50));
+            stage.show();
+        });
+    }
+
+    @TearDown(Level.Trial) public void tearDown() {
+        FxToolkit.runAndWait(() -> {
+            stage.close();
+            control.dispose();
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void textChanged() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { control.setText((i & 1) == 0 ? "Text" : ""); }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void focusChanged() {
+        FxToolkit.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) { skin.handleControlPropertyChanged("FOCUSED"); }
+        });
+    }
+}
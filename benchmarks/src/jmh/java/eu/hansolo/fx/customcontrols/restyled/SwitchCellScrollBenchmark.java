@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.restyled;
+
+import eu.hansolo.fx.customcontrols.bench.FrameTimeHistogram;
+import eu.hansolo.fx.customcontrols.bench.FxToolkit;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+
+
+/**
+ * Scrolls the ListView and the TableView of the DemoSwitchCells with 100k rows
+ * headless by a number of rows per frame and reports the frame times, which are
+ * measured from pulse to pulse and therefore include css, layout and rendering.
+ *
+ * Arguments (all optional):
+ *   --frames       2000
+ *   --rowsPerFrame 7
+ *   --out          frames.csv
+ */
+public class SwitchCellScrollBenchmark {
+    private static final System.Logger LOGGER = System.getLogger(SwitchCellScrollBenchmark.class.getName());
+    private        final int           frames;
+    private        final int           rowsPerFrame;
+
+
+    // ******************** Constructors **************************************
+    public SwitchCellScrollBenchmark(final int frames, final int rowsPerFrame) {
+        this.frames       = frames;
+        this.rowsPerFrame = rowsPerFrame;
+    }
+
+
+    // ******************** Methods *******************************************
+    public FrameTimeHistogram run() {
+        FxToolkit.start();
+        final DemoSwitchCells demo  = new DemoSwitchCells();
+        final Stage[]         stage = new Stage[1];
+        demo.init();
+        FxToolkit.runAndWait(() -> {
+            stage[0] = new Stage();
+            demo.start(stage[0]);
+        });
+
+        final FrameTimeHistogram histogram = new FrameTimeHistogram();
+        final CountDownLatch     done      = new CountDownLatch(1);
+        final AnimationTimer     timer     = new AnimationTimer() {
+            private int  frame;
+            private long lastPulse;
+
+            @Override public void handle(final long now) {
+                if (lastPulse > 0) { histogram.record(now - lastPulse); }
+                lastPulse = now;
+                if (frame == frames) {
+                    stop();
+                    done.countDown();
+                    return;
+                }
+                int index = (frame * rowsPerFrame) % DemoSwitchCells.NO_OF_ROWS;
+                demo.getListView().scrollTo(index);
+                demo.getTableView().scrollTo(index);
+                frame++;
+            }
+        };
+        FxToolkit.runAndWait(timer::start);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        FxToolkit.runAndWait(() -> {
+            timer.stop();
+            stage[0].close();
+        });
+        return histogram;
+    }
+
+
+    // ******************** Main **********************************************
+    public static void main(final String[] args) throws IOException {
+        int  frames       = 2_000;
+        int  rowsPerFrame = 7;
+        Path out          = null;
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch(args[i]) {
+                case "--frames"       -> frames       = Integer.parseInt(value);
+                case "--rowsPerFrame" -> rowsPerFrame = Integer.parseInt(value);
+                case "--out"          -> out          = Paths.get(value);
+                default               -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        FrameTimeHistogram histogram = new SwitchCellScrollBenchmark(frames, rowsPerFrame).run();
+        LOGGER.log(System.Logger.Level.INFO, "Scrolling " + DemoSwitchCells.NO_OF_ROWS + " rows: " + histogram.getSummary());
+        if (null != out) {
+            histogram.write(out);
+            LOGGER.log(System.Logger.Level.INFO, "Frame times written to " + out.toAbsolutePath());
+        }
+        Platform.exit();
+    }
+}
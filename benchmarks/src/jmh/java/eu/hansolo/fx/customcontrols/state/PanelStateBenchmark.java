@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.state;
+
+import eu.hansolo.fx.customcontrols.bench.FxToolkit;
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.combined.CombinedControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.extended.ExtendedControl;
+import eu.hansolo.fx.customcontrols.regionbased.RegionControl;
+import eu.hansolo.fx.customcontrols.tools.UnitRegistry;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Writing and restoring a workspace of 50k mixed controls, the restore creates
+ * all controls from the mapped file without adding them to a scene.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PanelStateBenchmark {
+    private static final int        CONTROLS = 50_000;
+    private              List<Node> controls;
+    private              Path       file;
+    private              Path       target;
+
+
+    @Setup(Level.Trial) public void setup() throws IOException {
+        FxToolkit.start();
+        controls = new ArrayList<>(CONTROLS);
+        FxToolkit.runAndWait(() -> {
+            Color[] colors = { Color.RED, Color.LIME, Color.DODGERBLUE, Color.ORANGE };
+            for (int i = 0; i < CONTROLS; i++) {
+                switch(i % 5) {
+                    case 0 -> {
+                        CanvasControl control = new CanvasControl("Canvas " + i);
+                        control.setForegroundColor(colors[i & 3]);
+                        control.setActive(i % 2 == 0);
+                        controls.add(control);
+                    }
+                    case 1 -> {
+                        RegionControl control = new RegionControl(RegionControl.Type.values()[i % 3]);
+                        control.setState(i % 2 == 0);
+                        controls.add(control);
+                    }
+                    case 2 -> {
+                        CustomControl control = new CustomControl(SkinType.values()[i % SkinType.values().length]);
+                        control.setColor(colors[i & 3]);
+                        controls.add(control);
+                    }
+                    case 3 -> {
+                        ExtendedControl control = new ExtendedControl("Text " + i);
+                        control.setPromptText("Prompt");
+                        controls.add(control);
+                    }
+                    default -> {
+                        CombinedControl control = new CombinedControl(UnitRegistry.PRESSURE);
+                        control.setValue(i * 0.01);
+                        controls.add(control);
+                    }
+                }
+            }
+        });
+        file   = Files.createTempFile("panel-state", ".fxps");
+        target = Files.createTempFile("panel-state-write", ".fxps");
+        PanelStateWriter.write(file, controls);
+    }
+
+    @TearDown(Level.Trial) public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark public int write() throws IOException { return PanelStateWriter.write(target, controls); }
+
+    @Benchmark public int restore() {
+        final int[] restored = new int[1];
+        FxToolkit.runAndWait(() -> {
+            try (PanelStateReader reader = new PanelStateReader(file)) {
+                while (null != reader.next()) { restored[0]++; }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return restored[0];
+    }
+}
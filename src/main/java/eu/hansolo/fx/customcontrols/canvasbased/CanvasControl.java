@@ -17,7 +17,19 @@
  package eu.hansolo.fx.customcontrols.canvasbased;
 
 
+ import eu.hansolo.fx.customcontrols.tools.ActionDispatcher;
+ import eu.hansolo.fx.customcontrols.tools.DerivedColors;
  import eu.hansolo.fx.customcontrols.tools.Helper;
+ import eu.hansolo.fx.customcontrols.tools.InteractiveControl;
+ import eu.hansolo.fx.customcontrols.tools.LayoutEvent;
+ import eu.hansolo.fx.customcontrols.tools.QualityAware;
+ import eu.hansolo.fx.customcontrols.tools.QualityLevel;
+ import eu.hansolo.fx.customcontrols.tools.QualityManager;
+ import eu.hansolo.fx.customcontrols.tools.RenderEvent;
+ import eu.hansolo.fx.customcontrols.tools.RenderStats;
+ import eu.hansolo.fx.customcontrols.tools.Resettable;
+ import eu.hansolo.fx.customcontrols.tools.Theme;
+ import eu.hansolo.fx.customcontrols.tools.Themeable;
  import javafx.animation.AnimationTimer;
  import javafx.beans.DefaultProperty;
  import javafx.beans.property.BooleanProperty;
@@ -28,11 +40,12 @@
  import javafx.beans.property.StringPropertyBase;
  import javafx.collections.ObservableList;
  import javafx.event.ActionEvent;
+ import javafx.event.EventHandler;
+ import javafx.event.EventType;
  import javafx.geometry.VPos;
  import javafx.scene.Node;
  import javafx.scene.canvas.Canvas;
  import javafx.scene.canvas.GraphicsContext;
- import javafx.scene.effect.BlurType;
  import javafx.scene.effect.DropShadow;
  import javafx.scene.effect.InnerShadow;
  import javafx.scene.image.Image;
@@ -48,6 +61,8 @@
  import javafx.scene.text.Font;
  import javafx.scene.text.TextAlignment;
 
+ import java.util.ArrayList;
+ import java.util.List;
  import java.util.Random;
  import java.util.function.Consumer;
 
@@ -58,7 +73,7 @@
   * Time: 13:38
   */
  @DefaultProperty("children")
- public class CanvasControl extends Region {
+ public class CanvasControl extends Region implements InteractiveControl, Resettable, Themeable, QualityAware {
      private static final double                PREFERRED_WIDTH                 = 268;
      private static final double                PREFERRED_HEIGHT                = 85;
      private static final double                MINIMUM_WIDTH                   = 20;
@@ -76,7 +91,11 @@
      private        final Image                 particleImg;
      private        final double                imgOffsetX;
      private        final double                imgOffsetY;
-     private              String                userAgentStyleSheet;
+     private static       String                userAgentStyleSheet;
+     private static       Image                 defaultParticleImg;
+     private static final List<CanvasControl>   DIRTY_CONTROLS                  = new ArrayList<>();
+     private static       AnimationTimer        redrawScheduler;
+     private              Random                rnd;
      private              double                aspectRatio;
      private              boolean               keepAspect;
      private              double                size;
@@ -88,16 +107,31 @@
      private              Pane                  pane;
      private              boolean               hovered;
      private              boolean               pressed;
+     private              boolean               inputDelegated;
+     private              EventHandler<MouseEvent> mouseFilter;
      private              InnerShadow           innerShadow;
      private              DropShadow            dropShadow;
+     private              RadialGradient        highlightGradient;
+     private              Font                  textFont;
+     private              String                _text;
      private              StringProperty        text;
+     private              Color                 _backgroundColor;
      private              ObjectProperty<Color> backgroundColor;
+     private              Color                 _foregroundColor;
      private              ObjectProperty<Color> foregroundColor;
+     private              boolean               _active;
      private              BooleanProperty       active;
+     private              DerivedColors         derivedColors;
+     private              boolean               dirty;
+     private              boolean               animating;
+     private              RenderStats           stats;
      private              ImageParticle[]       particles;
+     private              int                   noOfParticles;
+     private              QualityLevel          quality;
      private              long                  lastTimerCalled;
      private              AnimationTimer        timer;
      private              Consumer<ActionEvent> actionConsumer;
+     private              ActionDispatcher      actionDispatcher;
 
      
      // ******************** Constructors **************************************
@@ -112,7 +146,7 @@
      }
      public CanvasControl(final String text, final Image image) {
          if (null == image || image.getWidth() != image.getHeight()) {
-             this.particleImg = new Image(CanvasControl.class.getResourceAsStream("bubble.png"));
+             this.particleImg = getDefaultParticleImage();
          } else {
              this.particleImg = image;
          }
@@ -122,47 +156,14 @@
          this.keepAspect      = true;
          this.hovered         = false;
          this.pressed         = false;
-         this.text            = new StringPropertyBase(text) {
-             @Override protected void invalidated() { redraw(); }
-             @Override public Object getBean() { return CanvasControl.this; }
-             @Override public String getName() { return "text"; }
-         };
-         this.innerShadow     = new InnerShadow(BlurType.TWO_PASS_BOX, Color.rgb(0, 0, 0, 0.65), 20, 0.0, 0, 0);
-         this.dropShadow      = new DropShadow(BlurType.TWO_PASS_BOX, Color.rgb(0, 0, 0, 0.25), 5, 0.0, 0, 0);
-         this.backgroundColor = new ObjectPropertyBase<>(DEFAULT_BACKGROUND_COLOR) {
-             @Override protected void invalidated() { redraw(); }
-             @Override public Object getBean() { return CanvasControl.this; }
-             @Override public String getName() { return "backgroundColorTop"; }
-         };
-         this.foregroundColor = new ObjectPropertyBase<>(DEFAULT_FOREGROUND_COLOR) {
-             @Override protected void invalidated() { redraw(); }
-             @Override public Object getBean() { return CanvasControl.this; }
-             @Override public String getName() { return "foregroundColor"; }
-         };
-         this.active          = new BooleanPropertyBase(false) {
-             @Override protected void invalidated() {
-                 if (get()) {
-                     timer.start();
-                 } else {
-                     timer.stop();
-                 }
-             }
-             @Override public Object getBean() { return CanvasControl.this;}
-             @Override public String getName() { return "active"; }
-         };
-         this.particles       = new ImageParticle[NO_OF_PARTICLES];
-         this.lastTimerCalled = System.nanoTime();
-         this.timer           = new AnimationTimer() {
-             @Override public void handle(final long now) {
-                 if (now - lastTimerCalled > UPDATE_INTERVAL) {
-                     redraw();
-                     lastTimerCalled = now;
-                 }
-             }
-         };
-         for (int i = 0; i < NO_OF_PARTICLES; i++) {
-             particles[i] = new ImageParticle(PREFERRED_WIDTH, PREFERRED_HEIGHT, particleImg);
-         }
+         this.quality         = QualityLevel.HIGH;
+         this.noOfParticles   = NO_OF_PARTICLES;
+
+         this._text            = text;
+         this._backgroundColor = DEFAULT_BACKGROUND_COLOR;
+         this._foregroundColor = DEFAULT_FOREGROUND_COLOR;
+         this._active          = false;
+         this.stats            = RenderStats.of(CanvasControl.class);
          initGraphics();
          registerListeners();
      }
@@ -180,6 +181,30 @@
          }
 
          getStyleClass().add("canvas-control");
+     }
+
+     /**
+      * Creates the canvas, effects, particles and timer on the first layout pass,
+      * which only happens once the control is part of a scene that is shown, so
+      * controls that are never shown do not pay for them.
+      */
+     private void initCanvas() {
+         rnd             = new Random();
+         innerShadow     = new InnerShadow(quality.getBlurType(), Color.rgb(0, 0, 0, 0.65), 20, 0.0, 0, 0);
+         dropShadow      = new DropShadow(quality.getBlurType(), Color.rgb(0, 0, 0, 0.25), 5, 0.0, 0, 0);
+         particles       = new ImageParticle[NO_OF_PARTICLES];
+         lastTimerCalled = System.nanoTime();
+         timer           = new AnimationTimer() {
+             @Override public void handle(final long now) {
+                 if (now - lastTimerCalled > UPDATE_INTERVAL) {
+                     redraw();
+                     lastTimerCalled = now;
+                 }
+             }
+         };
+         for (int i = 0; i < NO_OF_PARTICLES; i++) {
+             particles[i] = new ImageParticle(PREFERRED_WIDTH, PREFERRED_HEIGHT, particleImg);
+         }
 
          canvas = new Canvas(getPrefWidth(), getPrefHeight());
          canvas.setPickOnBounds(true);
@@ -194,29 +219,28 @@
          pane = new Pane(canvas);
 
          getChildren().setAll(pane);
+
+         if (!inputDelegated) { canvas.addEventFilter(MouseEvent.ANY, getMouseFilter()); }
+
+         // Applies the current quality level which also starts the timer if needed
+         QualityManager.getInstance().register(this);
      }
 
      private void registerListeners() {
          widthProperty().addListener(o -> resize());
          heightProperty().addListener(o -> resize());
-         canvas.addEventFilter(MouseEvent.MOUSE_ENTERED, e -> {
-             hovered = true;
-             setActive(true);
-             redraw();
-         });
-         canvas.addEventFilter(MouseEvent.MOUSE_EXITED, e -> {
-             hovered = false;
-             redraw();
-         });
-         canvas.addEventFilter(MouseEvent.MOUSE_PRESSED, e -> {
-             pressed = true;
-             redraw();
-             if (null == actionConsumer) { return; }
-             actionConsumer.accept(new ActionEvent());
-         });
-         canvas.addEventFilter(MouseEvent.MOUSE_RELEASED, e -> {
-             pressed = false;
-             redraw();
+         if (RenderStats.isPerInstance()) {
+             idProperty().addListener(o -> updateStats());
+             sceneProperty().addListener(o -> updateStats());
+         }
+         sceneProperty().addListener((o, ov, nv) -> {
+             // Only a running timer would keep a detached control reachable, the canvas, effects and
+             // particles are kept, so a pooled or re-added control doesn't have to create them again
+             if (null == nv) {
+                 hovered = false;
+                 pressed = false;
+             }
+             updateTimer();
          });
      }
 
@@ -231,36 +255,305 @@
 
      @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
-     public String getText() { return text.get(); }
-     public void setText(final String text) { this.text.set(text); }
-     public StringProperty textProperty() { return text; }
+     // Properties are only created when they are requested, most instances only use the plain getters and setters
+     public String getText() { return null == text ? _text : text.get(); }
+     public void setText(final String text) {
+         if (null == this.text) {
+             _text = text;
+             requestRedraw();
+         } else {
+             this.text.set(text);
+         }
+     }
+     public StringProperty textProperty() {
+         if (null == text) {
+             text = new StringPropertyBase(_text) {
+                 @Override protected void invalidated() { requestRedraw(); }
+                 @Override public Object getBean() { return CanvasControl.this; }
+                 @Override public String getName() { return "text"; }
+             };
+             _text = null;
+         }
+         return text;
+     }
 
-     public Color getBackgroundColor() { return backgroundColor.get(); }
-     public void setBackgroundColor(final Color color) { backgroundColor.set(color); }
-     public ObjectProperty<Color> backgroundColorProperty() { return backgroundColor; }
+     public Color getBackgroundColor() { return null == backgroundColor ? _backgroundColor : backgroundColor.get(); }
+     public void setBackgroundColor(final Color color) {
+         if (null == backgroundColor) {
+             _backgroundColor = color;
+             requestRedraw();
+         } else {
+             backgroundColor.set(color);
+         }
+     }
+     public ObjectProperty<Color> backgroundColorProperty() {
+         if (null == backgroundColor) {
+             backgroundColor = new ObjectPropertyBase<>(_backgroundColor) {
+                 @Override protected void invalidated() { requestRedraw(); }
+                 @Override public Object getBean() { return CanvasControl.this; }
+                 @Override public String getName() { return "backgroundColor"; }
+             };
+             _backgroundColor = null;
+         }
+         return backgroundColor;
+     }
 
-     public Color getForegroundColor() { return foregroundColor.get(); }
-     public void setForegroundColor(final Color color) { foregroundColor.set(color); }
-     public ObjectProperty<Color> foregroundColorProperty() { return foregroundColor; }
+     public Color getForegroundColor() { return null == foregroundColor ? _foregroundColor : foregroundColor.get(); }
+     public void setForegroundColor(final Color color) {
+         if (null == foregroundColor) {
+             _foregroundColor = color;
+             requestRedraw();
+         } else {
+             foregroundColor.set(color);
+         }
+     }
+     public ObjectProperty<Color> foregroundColorProperty() {
+         if (null == foregroundColor) {
+             foregroundColor = new ObjectPropertyBase<>(_foregroundColor) {
+                 @Override protected void invalidated() { requestRedraw(); }
+                 @Override public Object getBean() { return CanvasControl.this; }
+                 @Override public String getName() { return "foregroundColor"; }
+             };
+             _foregroundColor = null;
+         }
+         return foregroundColor;
+     }
 
-     public boolean isActive() { return active.get(); }
-     public void setActive(final boolean active) { this.active.set(active); }
-     public BooleanProperty activeProperty() { return active; }
+     public boolean isActive() { return null == active ? _active : active.get(); }
+     public void setActive(final boolean active) {
+         if (null == this.active) {
+             _active = active;
+             updateTimer();
+         } else {
+             this.active.set(active);
+         }
+     }
+     public BooleanProperty activeProperty() {
+         if (null == active) {
+             active = new BooleanPropertyBase(_active) {
+                 @Override protected void invalidated() { updateTimer(); }
+                 @Override public Object getBean() { return CanvasControl.this;}
+                 @Override public String getName() { return "active"; }
+             };
+         }
+         return active;
+     }
 
      public void setOnAction(final Consumer<ActionEvent> actionConsumer)   { this.actionConsumer  = actionConsumer; }
 
+     public ActionDispatcher getActionDispatcher() { return actionDispatcher; }
+     /**
+      * Runs the action consumer with the given dispatcher instead of synchronously
+      * on the FX application thread, null switches back to synchronous calls.
+      */
+     public void setActionDispatcher(final ActionDispatcher actionDispatcher) { this.actionDispatcher = actionDispatcher; }
+
+     private static synchronized Image getDefaultParticleImage() {
+         if (null == defaultParticleImg) { defaultParticleImg = new Image(CanvasControl.class.getResourceAsStream("bubble.png")); }
+         return defaultParticleImg;
+     }
+
+     private void updateTimer() {
+         if (null == timer) { return; }
+         if (isActive() && quality.isTransitionsEnabled() && null != getScene()) {
+             timer.start();
+             setAnimating(true);
+         } else {
+             timer.stop();
+             setAnimating(false);
+         }
+     }
+
+     private void setAnimating(final boolean animating) {
+         if (this.animating == animating) { return; }
+         this.animating = animating;
+         if (animating) {
+             stats.animationStarted();
+         } else {
+             stats.animationStopped();
+         }
+     }
+
+     /**
+      * Requests a redraw in the next pulse, all requests until then are coalesced
+      * into one redraw.
+      */
+     private void requestRedraw() {
+         if (null == canvas) { return; }
+         if (dirty) {
+             stats.coalesced();
+             return;
+         }
+         dirty = true;
+         DIRTY_CONTROLS.add(this);
+         if (null == redrawScheduler) {
+             redrawScheduler = new AnimationTimer() {
+                 @Override public void handle(final long now) { redrawDirtyControls(); }
+             };
+         }
+         redrawScheduler.start();
+     }
+
+     private static void redrawDirtyControls() {
+         for (int i = 0; i < DIRTY_CONTROLS.size(); i++) {
+             CanvasControl control = DIRTY_CONTROLS.get(i);
+             if (control.dirty) { control.redraw(); }
+         }
+         DIRTY_CONTROLS.clear();
+         redrawScheduler.stop();
+     }
+
+     @Override public void setInputDelegated(final boolean delegated) {
+         if (inputDelegated == delegated) { return; }
+         inputDelegated = delegated;
+         if (null == canvas) { return; }
+         if (delegated) {
+             canvas.removeEventFilter(MouseEvent.ANY, getMouseFilter());
+         } else {
+             canvas.addEventFilter(MouseEvent.ANY, getMouseFilter());
+         }
+     }
+
+     // One filter for all mouse events instead of one per event type
+     private EventHandler<MouseEvent> getMouseFilter() {
+         if (null == mouseFilter) {
+             mouseFilter = e -> {
+                 EventType<? extends MouseEvent> type = e.getEventType();
+                 if (MouseEvent.MOUSE_ENTERED == type) {
+                     handleHover(true);
+                 } else if (MouseEvent.MOUSE_EXITED == type) {
+                     handleHover(false);
+                 } else if (MouseEvent.MOUSE_PRESSED == type) {
+                     handlePress(e);
+                 } else if (MouseEvent.MOUSE_RELEASED == type) {
+                     handleRelease(e);
+                 }
+             };
+         }
+         return mouseFilter;
+     }
+
+     @Override public void handleHover(final boolean hovered) {
+         this.hovered = hovered;
+         if (hovered) { setActive(true); }
+         requestRedraw();
+     }
+
+     @Override public void handlePress(final MouseEvent event) {
+         pressed = true;
+         requestRedraw();
+         if (null == actionConsumer) { return; }
+         if (null == actionDispatcher) {
+             actionConsumer.accept(new ActionEvent());
+         } else {
+             // The pressed state is rendered in the next pulse while the consumer runs
+             actionDispatcher.dispatch(actionConsumer, new ActionEvent());
+         }
+     }
+
+     @Override public void handleRelease(final MouseEvent event) {
+         pressed = false;
+         requestRedraw();
+     }
+
+     @Override public void applyTheme(final Theme theme) {
+         derivedColors = theme.getDerivedColors();
+         setBackgroundColor(theme.getBackgroundColor());
+         setForegroundColor(theme.getForegroundColor());
+     }
+
+     @Override public void applyQuality(final QualityLevel level) {
+         quality       = level;
+         noOfParticles = level.getParticleCount(NO_OF_PARTICLES);
+         if (null != innerShadow) {
+             innerShadow.setBlurType(level.getBlurType());
+             dropShadow.setBlurType(level.getBlurType());
+         }
+         updateTimer();
+         requestRedraw();
+     }
+
+     @Override public void reset() {
+         if (null != text)            { text.unbind(); }
+         if (null != backgroundColor) { backgroundColor.unbind(); }
+         if (null != foregroundColor) { foregroundColor.unbind(); }
+         if (null != active)          { active.unbind(); }
+         hovered          = false;
+         pressed          = false;
+         actionConsumer   = null;
+         actionDispatcher = null;
+         setText("");
+         setBackgroundColor(DEFAULT_BACKGROUND_COLOR);
+         setForegroundColor(DEFAULT_FOREGROUND_COLOR);
+         setActive(false);
+         if (null != particles) {
+             for (ImageParticle particle : particles) { particle.init(); }
+         }
+         requestRedraw();
+     }
+
+     /**
+      * Stops the animation, releases the canvas, effects and particles and
+      * removes the action consumer and dispatcher. The canvas will be created
+      * again when the control is laid out the next time. Removing the control
+      * from the scene only stops the animation.
+      */
+     public void dispose() {
+         releaseCanvas();
+         stats.release();
+         stats            = RenderStats.of(CanvasControl.class);
+         actionConsumer   = null;
+         actionDispatcher = null;
+     }
+
+     // Instance statistics are only registered while the control is part of a scene
+     private void updateStats() {
+         RenderStats instanceStats = null == getScene() ? RenderStats.of(CanvasControl.class) : RenderStats.of(CanvasControl.class, getId());
+         stats.release();
+         stats = instanceStats;
+     }
+
+     private void releaseCanvas() {
+         if (null == canvas) { return; }
+         QualityManager.getInstance().unregister(this);
+         timer.stop();
+         setAnimating(false);
+         getChildren().clear();
+         timer             = null;
+         particles         = null;
+         innerShadow       = null;
+         dropShadow        = null;
+         highlightGradient = null;
+         textFont          = null;
+         rnd               = null;
+         clip              = null;
+         ctx               = null;
+         pane              = null;
+         canvas            = null;
+         hovered           = false;
+         pressed           = false;
+         dirty             = false;
+     }
+
 
      // ******************** Layout *******************************************
      @Override public void layoutChildren() {
+         if (null == canvas) {
+             initCanvas();
+             resize();
+         }
          super.layoutChildren();
      }
 
      @Override public String getUserAgentStylesheet() {
-         if (null == userAgentStyleSheet) { userAgentStyleSheet = CanvasControl.class.getResource("canvas-based.css").toExternalForm(); }
+         if (null == userAgentStyleSheet) { userAgentStyleSheet = Helper.getStylesheet(CanvasControl.class, "canvas-based.css"); }
          return userAgentStyleSheet;
      }
 
      private void resize() {
+         if (null == canvas) { return; }
+         LayoutEvent event = new LayoutEvent();
+         event.begin();
          width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
          height = getHeight() - getInsets().getTop() - getInsets().getBottom();
          size   = width < height ? width : height;
@@ -292,40 +585,45 @@
              dropShadow.setRadius(height * 0.01);
              dropShadow.setOffsetY(height * 0.025);
 
+             // Size dependent paints are created here instead of on every frame
+             highlightGradient = new RadialGradient(0.0, 0.0, width * 0.5, height * 1.75, width * 0.5,false, CycleMethod.NO_CYCLE,
+                                                    new Stop(0.0, DEFAULT_HIGHLIGHT_COLOR),
+                                                    new Stop(1.0, Color.TRANSPARENT));
+             textFont          = Font.font(height * 0.5);
+
              for (ImageParticle bubble : particles) { bubble.adjustToSize(width, height); }
 
              redraw();
          }
+         event.commit(this, "resize");
      }
 
-     private void redraw() {
-         double cornerRadius          = height;
-         Color  backgroundColorTop    = hovered ? getBackgroundColor().brighter() : getBackgroundColor();
-         Color  backgroundColorBottom = hovered ? Color.hsb(backgroundColorTop.getHue(), backgroundColorTop.getSaturation(), Helper
-             .clamp(0, 1, backgroundColorTop.getBrightness() * 1.5)).brighter() : Color.hsb(backgroundColorTop.getHue(), backgroundColorTop.getSaturation(), Helper
-             .clamp(0, 1, backgroundColorTop.getBrightness() * 1.5));
+     void redraw() {
+         dirty = false;
+         if (null == canvas) { return; }
+         long        start = System.nanoTime();
+         RenderEvent event = new RenderEvent();
+         event.begin();
+         double cornerRadius = height;
+         // The gradients only change with the background color and are looked up once instead of computed per frame
+         if (null == derivedColors || !derivedColors.getBaseColor().equals(getBackgroundColor())) {
+             derivedColors = DerivedColors.of(getBackgroundColor());
+             stats.cacheMiss();
+         } else {
+             stats.cacheHit();
+         }
 
          ctx.clearRect(0, 0, width, height);
 
          // Background
          ctx.save(); // inner shadow
          ctx.setEffect(innerShadow);
-         if (pressed) {
-             ctx.setFill(new LinearGradient(0, 0, 0, 1.0, true, CycleMethod.NO_CYCLE,
-                                            new Stop(0.0, Color.hsb(backgroundColorTop.getHue(), backgroundColorTop.getSaturation(), backgroundColorTop.getBrightness() * 0.7)),
-                                            new Stop(1.0, Color.hsb(backgroundColorBottom.getHue(), backgroundColorBottom.getSaturation(), backgroundColorBottom.getBrightness() * 0.7))));
-         } else {
-             ctx.setFill(new LinearGradient(0, 0, 0, 1.0, true, CycleMethod.NO_CYCLE,
-                                            new Stop(0.0, backgroundColorTop),
-                                            new Stop(1.0, backgroundColorBottom)));
-         }
+         ctx.setFill(derivedColors.getFill(hovered, pressed));
          ctx.fillRoundRect(1, 1, width - 2, height - 2, cornerRadius, cornerRadius);
          ctx.restore(); // shadow
 
          // Inner highlight
-         ctx.setFill(new RadialGradient(0.0, 0.0, width * 0.5, height * 1.75, width * 0.5,false, CycleMethod.NO_CYCLE,
-                                        new Stop(0.0, DEFAULT_HIGHLIGHT_COLOR),
-                                        new Stop(1.0, Color.TRANSPARENT)));
+         ctx.setFill(highlightGradient);
          ctx.fillRoundRect((width - width * 0.85820896) * 0.5, height * 0.23529412, width * 0.85820896, height * 0.70588235, height * 0.70588235, height * 0.70588235);
 
          // Top highlight
@@ -346,14 +644,14 @@
          ctx.save(); // text dropshadow
          ctx.setEffect(dropShadow);
          ctx.setFill(getForegroundColor());
-         ctx.setFont(Font.font(height * 0.5));
+         ctx.setFont(textFont);
          ctx.fillText(getText(), width * 0.5, height * 0.5, width * 0.9);
          ctx.restore(); // text dropshadow
          ctx.restore(); // translate
 
-         // Particles
-         if (isActive()) {
-             for (int i = 0; i < NO_OF_PARTICLES; i++) {
+         // Particles, they are part of the animation and only drawn while it runs
+         if (isActive() && quality.isTransitionsEnabled()) {
+             for (int i = 0; i < noOfParticles; i++) {
                  ImageParticle particle = particles[i];
                  ctx.save(); // translate & scale
                  ctx.translate(particle.x, particle.y);
@@ -367,12 +665,13 @@
                  particle.active = hovered;
              }
          }
+         event.commit(this, isActive() ? "animation" : "update");
+         stats.redraw(System.nanoTime() - start);
      }
 
 
      // ******************** Inner Classes ************************************
      class ImageParticle {
-         private final Random  rnd             = new Random();
          private final double  velocityFactorX = 1.0;
          private final double  velocityFactorY = 1.0;
          private final Image   image;
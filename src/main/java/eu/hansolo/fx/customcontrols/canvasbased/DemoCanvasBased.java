@@ -16,6 +16,7 @@
 
  package eu.hansolo.fx.customcontrols.canvasbased;
 
+ import eu.hansolo.fx.customcontrols.tools.InputRecorder;
  import javafx.application.Application;
  import javafx.application.Platform;
  import javafx.geometry.Insets;
@@ -76,6 +77,7 @@
          pane.setBackground(new Background(new BackgroundFill(Color.BLACK, CornerRadii.EMPTY, Insets.EMPTY)));
 
          Scene scene = new Scene(pane);
+         InputRecorder.recordIfRequested(scene, getClass().getName());
 
          stage.setTitle("Canvas based Control");
          stage.setScene(scene);
@@ -16,23 +16,54 @@
 
 package eu.hansolo.fx.customcontrols.combined;
 
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.Numeric;
+import eu.hansolo.fx.customcontrols.tools.Quantity;
+import eu.hansolo.fx.customcontrols.tools.RenderStats;
+import eu.hansolo.fx.customcontrols.tools.Unit;
+import eu.hansolo.fx.customcontrols.tools.UnitConverter;
+import eu.hansolo.fx.customcontrols.tools.UnitRegistry;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.DoublePropertyBase;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
 import javafx.scene.layout.HBox;
 
-import java.util.Locale;
-
 
 public class CombinedControl extends HBox {
-    private TextField textField;
-    private Button    button;
+    private static final int            DECIMALS = 2;
+    private static final RenderStats    STATS    = RenderStats.of(CombinedControl.class);
+    private static       String         userAgentStyleSheet;
+    private        final StringBuilder  textBuilder;
+    private        final Quantity       quantity;
+    private              Unit           unit;
+    private              UnitConverter  toDisplay;
+    private              UnitConverter  toBase;
+    private              TextField      textField;
+    private              Button         button;
+    private              DoubleProperty value;
+    private              boolean        adjusting;
 
 
     // ******************** Constructors **************************************
     public CombinedControl() {
-        getStylesheets().add(CombinedControl.class.getResource("combined.css").toExternalForm());
+        this(UnitRegistry.TEMPERATURE);
+    }
+    public CombinedControl(final Quantity quantity) {
+        this.quantity = quantity;
+        this.unit     = quantity.getBaseUnit();
+        toDisplay     = quantity.getConverter(unit, unit);
+        toBase        = toDisplay;
+        textBuilder   = new StringBuilder(16);
+        value         = new DoublePropertyBase(0) {
+            @Override protected void invalidated() {
+                if (!adjusting) { updateText(); }
+            }
+            @Override public Object getBean() { return CombinedControl.this; }
+            @Override public String getName() { return "value"; }
+        };
         initGraphics();
         registerListeners();
     }
@@ -44,9 +75,9 @@ public class CombinedControl extends HBox {
 
         textField = new TextField();
         textField.setFocusTraversable(false);
-        textField.setTextFormatter(new TextFormatter<>(change -> change.getText().matches("[0-9]*(\\.[0-9]*)?") ? change : null));
+        textField.setTextFormatter(new TextFormatter<>(change -> adjusting || Numeric.isDecimalInput(change.getText()) ? change : null));
 
-        button = new Button("°C");
+        button = new Button(unit.getSymbol());
         button.setFocusTraversable(false);
 
         setSpacing(0);
@@ -58,43 +89,63 @@ public class CombinedControl extends HBox {
     }
 
     private void registerListeners() {
+        textField.textProperty().addListener(o -> handleControlPropertyChanged("TEXT_CHANGED"));
         button.setOnMousePressed(e -> handleControlPropertyChanged("BUTTON_PRESSED"));
     }
 
 
     // ******************** Methods *******************************************
+    /**
+     * The value in the base unit of the quantity, the text field always shows
+     * this value converted to the currently selected unit.
+     */
+    public double getValue() { return value.get(); }
+    public void setValue(final double value) { this.value.set(value); }
+    public DoubleProperty valueProperty() { return value; }
+
+    public Quantity getQuantity() { return quantity; }
+
+    public Unit getUnit() { return unit; }
+    public void setUnit(final Unit unit) {
+        toDisplay = quantity.getConverter(quantity.getBaseUnit(), unit);
+        toBase    = quantity.getConverter(unit, quantity.getBaseUnit());
+        this.unit = unit;
+        button.setText(unit.getSymbol());
+        if (Numeric.isNumber(textField.getText())) { updateText(); }
+    }
+
     private void handleControlPropertyChanged(final String property) {
-        if ("BUTTON_PRESSED".equals(property)) {
-            String buttonText = button.getText();
-            String text       = textField.getText();
-            if (text.matches("^[-+]?\\d+(\\.\\d+)?$")) {
-                if ("°C".equals(buttonText)) {
-                    // Convert to Fahrenheit
-                    button.setText("°F");
-                    textField.setText(toFahrenheit(textField.getText()));
-                } else {
-                    // Convert to Celsius
-                    button.setText("°C");
-                    textField.setText(toCelsius(textField.getText()));
-                }
+        if ("TEXT_CHANGED".equals(property)) {
+            if (adjusting) { return; }
+            String text = textField.getText();
+            if (Numeric.isNumber(text)) {
+                double displayed = Numeric.parse(text);
+                adjusting = true;
+                value.set(toBase.convert(displayed));
+                adjusting = false;
+            }
+        } else if ("BUTTON_PRESSED".equals(property)) {
+            if (Numeric.isNumber(textField.getText())) {
+                // The value is kept in the base unit so switching units never loses precision
+                setUnit(quantity.next(unit));
             }
         }
     }
 
-    private String toFahrenheit(final String text) {
-        try {
-            double celsius = Double.parseDouble(text);
-            return String.format(Locale.US, "%.2f", (celsius * 1.8 + 32));
-        } catch (NumberFormatException e) {
-            return text;
-        }
+    private void updateText() {
+        long start = System.nanoTime();
+        textBuilder.setLength(0);
+        Numeric.format(toDisplay.convert(getValue()), DECIMALS, textBuilder);
+        adjusting = true;
+        textField.setText(textBuilder.toString());
+        adjusting = false;
+        STATS.redraw(System.nanoTime() - start);
     }
-    private String toCelsius(final String text) {
-        try {
-            double fahrenheit = Double.parseDouble(text);
-            return String.format(Locale.US, "%.2f", ((fahrenheit - 32) / 1.8));
-        } catch (NumberFormatException e) {
-            return text;
-        }
+
+
+    // ******************** Style related *************************************
+    @Override public String getUserAgentStylesheet() {
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = Helper.getStylesheet(CombinedControl.class, "combined.css"); }
+        return userAgentStyleSheet;
     }
 }
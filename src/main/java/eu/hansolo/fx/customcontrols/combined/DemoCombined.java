@@ -16,6 +16,7 @@
 
 package eu.hansolo.fx.customcontrols.combined;
 
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -40,6 +41,7 @@ public class DemoCombined extends Application {
         pane.setPadding(new Insets(20));
 
         Scene scene = new Scene(pane);
+        InputRecorder.recordIfRequested(scene, getClass().getName());
 
         stage.setTitle("Combined Control");
         stage.setScene(scene);
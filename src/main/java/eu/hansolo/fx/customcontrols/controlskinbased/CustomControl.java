@@ -16,6 +16,11 @@
 
 package eu.hansolo.fx.customcontrols.controlskinbased;
 
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.Resettable;
+import eu.hansolo.fx.customcontrols.tools.SkinEvent;
+import eu.hansolo.fx.customcontrols.tools.Theme;
+import eu.hansolo.fx.customcontrols.tools.Themeable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.ObjectProperty;
@@ -30,26 +35,30 @@ import javafx.scene.control.Skin;
 import javafx.scene.paint.Color;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
-public class CustomControl extends Control {
+public class CustomControl extends Control implements Resettable, Themeable {
     public enum SkinType { LED, SWITCH }
 
     private static final StyleablePropertyFactory<CustomControl> FACTORY = new StyleablePropertyFactory<>(Control.getClassCssMetaData());
 
     // CSS pseudo classes
     private static final PseudoClass                       ON_PSEUDO_CLASS = PseudoClass.getPseudoClass("on");
+    private              boolean                           _state;
     private              BooleanProperty                   state;
 
-    // CSS Styleable property
-    private static final CssMetaData<CustomControl, Color> COLOR = FACTORY.createColorCssMetaData("-color", s -> s.color, Color.RED, false);
-    private        final StyleableProperty<Color>          color;
+    // CSS Styleable property, created on the first css pass or when requested
+    private static final CssMetaData<CustomControl, Color> COLOR = FACTORY.createColorCssMetaData("-color", s -> (StyleableProperty<Color>) s.colorProperty(), Color.RED, false);
+    private              StyleableProperty<Color>          color;
 
     private static       String                            defaultUserAgentStyleSheet;
     private static       String                            switchUserAgentStyleSheet;
 
     // Properties
     private              SkinType                          skinType;
+    // The skin is notified through this instead of listeners, so it doesn't create the lazy properties
+    private              Consumer<String>                  changeHandler;
 
 
     // ******************** Constructors **************************************
@@ -59,44 +68,97 @@ public class CustomControl extends Control {
     public CustomControl(final SkinType skinType) {
         getStyleClass().add("custom-control");
         this.skinType = skinType;
-        this.state    = new BooleanPropertyBase(false) {
-            @Override protected void invalidated() { pseudoClassStateChanged(ON_PSEUDO_CLASS, get()); }
-            @Override public Object getBean() { return this; }
-            @Override public String getName() { return "state"; }
-        };
-        this.color    = new SimpleStyleableObjectProperty<>(COLOR, this, "color");
+        this._state   = false;
     }
 
 
     // ******************** Methods *******************************************
-    public boolean getState() { return state.get(); }
-    public void setState(final boolean state) { this.state.set(state); }
-    public BooleanProperty stateProperty() { return state; }
+    public boolean getState() { return null == state ? _state : state.get(); }
+    public void setState(final boolean state) {
+        if (null == this.state) {
+            if (_state == state) { return; }
+            _state = state;
+            pseudoClassStateChanged(ON_PSEUDO_CLASS, state);
+            fireChange("STATE");
+        } else {
+            this.state.set(state);
+        }
+    }
+    public BooleanProperty stateProperty() {
+        if (null == state) {
+            state = new BooleanPropertyBase(_state) {
+                @Override protected void invalidated() {
+                    pseudoClassStateChanged(ON_PSEUDO_CLASS, get());
+                    fireChange("STATE");
+                }
+                @Override public Object getBean() { return CustomControl.this; }
+                @Override public String getName() { return "state"; }
+            };
+        }
+        return state;
+    }
+
+    public SkinType getSkinType() { return skinType; }
+
+    /**
+     * Sets the handler that is called with "STATE" or "COLOR" when the state or
+     * the color changed, null removes it.
+     */
+    void setChangeHandler(final Consumer<String> changeHandler) { this.changeHandler = changeHandler; }
+
+    private void fireChange(final String property) {
+        if (null != changeHandler) { changeHandler.accept(property); }
+    }
+
+
+    @Override public void applyTheme(final Theme theme) { setColor(theme.getAccentColor()); }
+
+    @Override public void reset() {
+        if (null != state) { state.unbind(); }
+        setState(false);
+        if (null != color) {
+            colorProperty().unbind();
+            // Hand the color back to the stylesheet, it will be styled again on the next css pass
+            color.applyStyle(null, COLOR.getInitialValue(CustomControl.this));
+        }
+    }
 
 
     // ******************** CSS Styleable Properties **************************
-    public Color getColor() { return color.getValue(); }
-    public void setColor(final Color color) { this.color.setValue(color); }
-    public ObjectProperty<Color> colorProperty() { return (ObjectProperty<Color>) color; }
+    public Color getColor() { return null == color ? null : color.getValue(); }
+    public void setColor(final Color color) { colorProperty().set(color); }
+    public ObjectProperty<Color> colorProperty() {
+        if (null == color) {
+            color = new SimpleStyleableObjectProperty<>(COLOR, CustomControl.this, "color") {
+                @Override protected void invalidated() { fireChange("COLOR"); }
+            };
+        }
+        return (ObjectProperty<Color>) color;
+    }
 
 
     // ******************** Style related *************************************
     @Override protected Skin createDefaultSkin() {
+        SkinEvent event = new SkinEvent();
+        event.begin();
+        Skin skin;
         switch(skinType) {
-            case SWITCH: return new SwitchSkin(CustomControl.this);
+            case SWITCH: skin = new SwitchSkin(CustomControl.this); break;
             case LED   :
-            default    : return new LedSkin(CustomControl.this);
+            default    : skin = new LedSkin(CustomControl.this); break;
         }
+        event.commit(CustomControl.this, skinType.name());
+        return skin;
     }
 
     @Override public String getUserAgentStylesheet() {
         switch(skinType) {
             case SWITCH:
-                if (null == switchUserAgentStyleSheet) { switchUserAgentStyleSheet = CustomControl.class.getResource("switch.css").toExternalForm(); }
+                if (null == switchUserAgentStyleSheet) { switchUserAgentStyleSheet = Helper.getStylesheet(CustomControl.class, "switch.css"); }
                 return switchUserAgentStyleSheet;
             case LED   :
             default    :
-                if (null == defaultUserAgentStyleSheet) { defaultUserAgentStyleSheet = CustomControl.class.getResource("custom-control.css").toExternalForm(); }
+                if (null == defaultUserAgentStyleSheet) { defaultUserAgentStyleSheet = Helper.getStylesheet(CustomControl.class, "custom-control.css"); }
                 return defaultUserAgentStyleSheet;
         }
     }
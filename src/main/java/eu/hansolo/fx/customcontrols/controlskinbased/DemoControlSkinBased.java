@@ -17,6 +17,8 @@
 package eu.hansolo.fx.customcontrols.controlskinbased;
 
 import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -48,7 +50,8 @@ public class DemoControlSkinBased extends Application {
         pane.setPadding(new Insets(20));
 
         Scene scene = new Scene(pane, 200, 200);
-        scene.getStylesheets().add(DemoControlSkinBased.class.getResource("styles.css").toExternalForm());
+        InputRecorder.recordIfRequested(scene, getClass().getName());
+        scene.getStylesheets().add(Helper.getStylesheet(DemoControlSkinBased.class, "styles.css"));
 
         stage.setTitle("Control-Skin based Control");
         stage.setScene(scene);
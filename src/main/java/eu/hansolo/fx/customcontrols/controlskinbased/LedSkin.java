@@ -16,44 +16,50 @@
 
 package eu.hansolo.fx.customcontrols.controlskinbased;
 
+import eu.hansolo.fx.customcontrols.tools.DerivedColors;
+import eu.hansolo.fx.customcontrols.tools.LayoutEvent;
+import eu.hansolo.fx.customcontrols.tools.QualityAware;
+import eu.hansolo.fx.customcontrols.tools.QualityLevel;
+import eu.hansolo.fx.customcontrols.tools.QualityManager;
+import eu.hansolo.fx.customcontrols.tools.RenderStats;
 import javafx.beans.InvalidationListener;
 import javafx.scene.control.Skin;
 import javafx.scene.control.SkinBase;
-import javafx.scene.effect.BlurType;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.InnerShadow;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 
 
-public class LedSkin extends SkinBase<CustomControl> implements Skin<CustomControl> {
+public class LedSkin extends SkinBase<CustomControl> implements Skin<CustomControl>, QualityAware {
     private static final double               PREFERRED_WIDTH  = 16;
     private static final double               PREFERRED_HEIGHT = 16;
     private static final double               MINIMUM_WIDTH    = 8;
     private static final double               MINIMUM_HEIGHT   = 8;
     private static final double               MAXIMUM_WIDTH    = 1024;
     private static final double               MAXIMUM_HEIGHT   = 1024;
+    private static final RenderStats          STATS            = RenderStats.of(LedSkin.class);
     private              double               size;
     private              Region               frame;
     private              Region               main;
     private              Region               highlight;
     private              InnerShadow          innerShadow;
     private              DropShadow           glow;
+    private              QualityLevel         quality;
+    private              DerivedColors        derivedColors;
     private              CustomControl        control;
     private              InvalidationListener sizeListener;
-    private              InvalidationListener colorListener;
-    private              InvalidationListener stateListener;
 
 
     // ******************** Constructors **************************************
     public LedSkin(final CustomControl control) {
         super(control);
-        this.control  = control;
-        sizeListener  = o -> handleControlPropertyChanged("RESIZE");
-        colorListener = o -> handleControlPropertyChanged("COLOR");
-        stateListener = o -> handleControlPropertyChanged("STATE");
+        this.control = control;
+        this.quality = QualityLevel.HIGH;
+        sizeListener = o -> handleControlPropertyChanged("RESIZE");
         initGraphics();
         registerListeners();
+        QualityManager.getInstance().register(this);
     }
 
 
@@ -73,12 +79,9 @@ public class LedSkin extends SkinBase<CustomControl> implements Skin<CustomContr
 
         main = new Region();
         main.getStyleClass().setAll("main");
-        main.setStyle(String.join("", "-color: ", control.getColor().toString().replace("0x", "#"), ";"));
+        updateColors();
 
-        innerShadow = new InnerShadow(BlurType.TWO_PASS_BOX, Color.rgb(0, 0, 0, 0.65), 8, 0, 0, 0);
-
-        glow = new DropShadow(BlurType.TWO_PASS_BOX, control.getColor(), 20, 0, 0, 0);
-        glow.setInput(innerShadow);
+        innerShadow = new InnerShadow(quality.getBlurType(), Color.rgb(0, 0, 0, 0.65), 8, 0, 0, 0);
 
         highlight = new Region();
         highlight.getStyleClass().setAll("highlight");
@@ -89,8 +92,7 @@ public class LedSkin extends SkinBase<CustomControl> implements Skin<CustomContr
     private void registerListeners() {
         control.widthProperty().addListener(sizeListener);
         control.heightProperty().addListener(sizeListener);
-        control.colorProperty().addListener(colorListener);
-        control.stateProperty().addListener(stateListener);
+        control.setChangeHandler(this::handleControlPropertyChanged);
     }
 
 
@@ -106,19 +108,55 @@ public class LedSkin extends SkinBase<CustomControl> implements Skin<CustomContr
         if ("RESIZE".equals(property)) {
             resize();
         } else if ("COLOR".equals(property)) {
-            main.setStyle(String.join("", "-color: ", (control.getColor()).toString().replace("0x", "#"), ";"));
+            updateColors();
             resize();
         } else if ("STATE".equals(property)) {
-            main.setEffect(control.getState() ? glow : innerShadow);
+            main.setBackground(derivedColors.getLedBackground(control.getState()));
+            updateEffect();
+        }
+    }
+
+    // The gradients come precomputed from the table, no inline style has to be parsed on a color change
+    private void updateColors() {
+        Color color = control.getColor();
+        derivedColors = DerivedColors.of(null == color ? Color.RED : color);
+        main.setBackground(derivedColors.getLedBackground(control.getState()));
+        if (null != glow) { glow.setColor(derivedColors.getGlowColor()); }
+    }
+
+    @Override public void applyQuality(final QualityLevel level) {
+        quality = level;
+        innerShadow.setBlurType(level.getBlurType());
+        if (null != glow) { glow.setBlurType(level.getBlurType()); }
+        updateEffect();
+    }
+
+    private void updateEffect() {
+        main.setEffect(control.getState() && quality.isGlowEnabled() ? getGlow() : innerShadow);
+    }
+
+    // Most leds in a panel are off, so the glow is only created once a led is switched on
+    private DropShadow getGlow() {
+        if (null == glow) {
+            glow = new DropShadow(quality.getBlurType(), derivedColors.getGlowColor(), 20, 0, 0, 0);
+            glow.setInput(innerShadow);
+            if (size > 0) { glow.setRadius(0.36 * size); }
         }
+        return glow;
     }
 
     @Override public void dispose() {
+        QualityManager.getInstance().unregister(this);
         control.widthProperty().removeListener(sizeListener);
         control.heightProperty().removeListener(sizeListener);
-        control.colorProperty().removeListener(colorListener);
-        control.stateProperty().removeListener(stateListener);
-        control = null;
+        control.setChangeHandler(null);
+        main.setEffect(null);
+        if (null != glow) { glow.setInput(null); }
+        getChildren().clear();
+        glow          = null;
+        innerShadow   = null;
+        derivedColors = null;
+        control       = null;
     }
 
 
@@ -128,23 +166,27 @@ public class LedSkin extends SkinBase<CustomControl> implements Skin<CustomContr
     }
 
     private void resize() {
+        long        start = System.nanoTime();
+        LayoutEvent event = new LayoutEvent();
+        event.begin();
         double width  = control.getWidth() - control.getInsets().getLeft() - control.getInsets().getRight();
         double height = control.getHeight() - control.getInsets().getTop() - control.getInsets().getBottom();
         size          = width < height ? width : height;
 
         if (size > 0) {
             innerShadow.setRadius(0.07 * size);
-            glow.setRadius(0.36 * size);
-            glow.setColor(control.getColor());
+            if (null != glow) { glow.setRadius(0.36 * size); }
 
             frame.setMaxSize(size, size);
 
             main.setMaxSize(0.72 * size, 0.72 * size);
             main.relocate(0.14 * size, 0.14 * size);
-            main.setEffect(control.getState() ? glow : innerShadow);
+            updateEffect();
 
             highlight.setMaxSize(0.58 * size, 0.58 * size);
             highlight.relocate(0.21 * size, 0.21 * size);
         }
+        event.commit(control, "resize");
+        STATS.redraw(System.nanoTime() - start);
     }
 }
@@ -16,39 +16,52 @@
 
 package eu.hansolo.fx.customcontrols.controlskinbased;
 
+import eu.hansolo.fx.customcontrols.tools.AnimationEvent;
+import eu.hansolo.fx.customcontrols.tools.DerivedColors;
+import eu.hansolo.fx.customcontrols.tools.QualityAware;
+import eu.hansolo.fx.customcontrols.tools.QualityLevel;
+import eu.hansolo.fx.customcontrols.tools.QualityManager;
+import eu.hansolo.fx.customcontrols.tools.RenderStats;
 import javafx.animation.TranslateTransition;
-import javafx.beans.InvalidationListener;
 import javafx.event.EventHandler;
+import javafx.geometry.Insets;
 import javafx.scene.control.Skin;
 import javafx.scene.control.SkinBase;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
 import javafx.util.Duration;
 
 
-public class SwitchSkin extends SkinBase<CustomControl> implements Skin<CustomControl> {
+public class SwitchSkin extends SkinBase<CustomControl> implements Skin<CustomControl>, QualityAware {
     private static final double                   PREFERRED_WIDTH  = 76;
     private static final double                   PREFERRED_HEIGHT = 46;
+    private static final RenderStats              STATS            = RenderStats.of(SwitchSkin.class);
+    private static final Background               OFF_BACKGROUND   = new Background(new BackgroundFill(Color.web("#a3a4a6"), new CornerRadii(1024), Insets.EMPTY));
     private              Region                   switchBackground;
     private              Region                   thumb;
     private              Pane                     pane;
     private              TranslateTransition      translate;
+    private              AnimationEvent           animationEvent;
+    private              boolean                  animating;
+    private              boolean                  transitionsEnabled;
     private              CustomControl            control;
-    private              InvalidationListener     colorListener;
-    private              InvalidationListener     state;
     private              EventHandler<MouseEvent> mouseEventHandler;
 
 
     // ******************** Constructors **************************************
     public SwitchSkin(final CustomControl control) {
         super(control);
-        this.control      = control;
-        colorListener     = o -> handleControlPropertyChanged("COLOR");
-        state             = o -> handleControlPropertyChanged("STATE");
-        mouseEventHandler = e -> this.control.setState(!this.control.getState());
+        this.control            = control;
+        this.transitionsEnabled = true;
+        mouseEventHandler       = e -> this.control.setState(!this.control.getState());
         initGraphics();
         registerListeners();
+        QualityManager.getInstance().register(this);
     }
 
 
@@ -56,22 +69,19 @@ public class SwitchSkin extends SkinBase<CustomControl> implements Skin<CustomCo
     private void initGraphics() {
         switchBackground = new Region();
         switchBackground.getStyleClass().add("switch-background");
-        switchBackground.setStyle(String.join("", "-color: ", control.getColor().toString().replace("0x", "#"), ";"));
+        updateBackground();
 
         thumb = new Region();
         thumb.getStyleClass().add("thumb");
         thumb.setMouseTransparent(true);
         if (control.getState()) { thumb.setTranslateX(32); }
 
-        translate = new TranslateTransition(Duration.millis(70), thumb);
-
         pane = new Pane(switchBackground, thumb);
         getChildren().add(pane);
     }
 
     private void registerListeners() {
-        control.colorProperty().addListener(colorListener);
-        control.stateProperty().addListener(state);
+        control.setChangeHandler(this::handleControlPropertyChanged);
         switchBackground.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseEventHandler);
     }
 
@@ -85,8 +95,20 @@ public class SwitchSkin extends SkinBase<CustomControl> implements Skin<CustomCo
 
     protected void handleControlPropertyChanged(final String property) {
         if ("COLOR".equals(property)) {
-            switchBackground.setStyle(String.join("", "-color: ", control.getColor().toString().replace("0x", "#"), ";"));
+            updateBackground();
         } else if ("STATE".equals(property)) {
+            updateBackground();
+            if (!transitionsEnabled) {
+                if (null != translate) { translate.stop(); }
+                handleAnimationFinished();
+                thumb.setTranslateX(control.getState() ? 32 : 2);
+                return;
+            }
+            // Only switches that are actually toggled need a transition
+            if (null == translate) {
+                translate = new TranslateTransition(Duration.millis(70), thumb);
+                translate.setOnFinished(e -> handleAnimationFinished());
+            }
             if (control.getState()) {
                 // move thumb to the right
                 translate.setFromX(2);
@@ -96,13 +118,60 @@ public class SwitchSkin extends SkinBase<CustomControl> implements Skin<CustomCo
                 translate.setFromX(32);
                 translate.setToX(2);
             }
+            startAnimationEvent();
+            setAnimating(true);
             translate.play();
         }
     }
 
+    // Shared backgrounds instead of an inline style that has to be parsed on every change
+    private void updateBackground() {
+        Color color = control.getColor();
+        switchBackground.setBackground(control.getState() ? DerivedColors.of(null == color ? Color.web("#4bd865") : color).getSwitchOnBackground() : OFF_BACKGROUND);
+    }
+
+    @Override public void applyQuality(final QualityLevel level) { transitionsEnabled = level.isTransitionsEnabled(); }
+
+    private void handleAnimationFinished() {
+        commitAnimationEvent();
+        setAnimating(false);
+    }
+
+    private void setAnimating(final boolean animating) {
+        if (this.animating == animating) { return; }
+        this.animating = animating;
+        if (animating) {
+            STATS.animationStarted();
+        } else {
+            STATS.animationStopped();
+        }
+    }
+
+    // An interrupted transition is committed when the next one starts
+    private void startAnimationEvent() {
+        commitAnimationEvent();
+        if (!AnimationEvent.isRecording()) { return; }
+        animationEvent = new AnimationEvent();
+        animationEvent.begin();
+    }
+
+    private void commitAnimationEvent() {
+        if (null == animationEvent || null == control) { return; }
+        animationEvent.commit(control, control.getState() ? "on" : "off");
+        animationEvent = null;
+    }
+
     @Override public void dispose() {
-        control.colorProperty().removeListener(colorListener);
-        control.stateProperty().removeListener(state);
+        QualityManager.getInstance().unregister(this);
+        control.setChangeHandler(null);
         switchBackground.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseEventHandler);
+        if (null != translate) {
+            translate.stop();
+            setAnimating(false);
+            translate.setNode(null);
+            translate = null;
+        }
+        getChildren().clear();
+        control = null;
     }
 }
@@ -16,6 +16,7 @@
 
 package eu.hansolo.fx.customcontrols.extended;
 
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -33,6 +34,7 @@ public class DemoExtended extends Application {
     @Override public void init() {
         control = new ExtendedControl();
         control.setPromptText("Name");
+        control.setValidator(text -> text.chars().allMatch(Character::isLetter));
 
         button = new Button("Focus");
     }
@@ -42,6 +44,7 @@ public class DemoExtended extends Application {
         pane.setPadding(new Insets(20));
 
         Scene scene = new Scene(pane);
+        InputRecorder.recordIfRequested(scene, getClass().getName());
 
         stage.setTitle("Extended Control");
         stage.setScene(scene);
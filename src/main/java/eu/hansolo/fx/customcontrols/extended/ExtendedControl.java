@@ -16,44 +16,50 @@
 
 package eu.hansolo.fx.customcontrols.extended;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.beans.property.DoubleProperty;
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.SkinEvent;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.css.CssMetaData;
+import javafx.css.PseudoClass;
 import javafx.css.SimpleStyleableObjectProperty;
 import javafx.css.Styleable;
 import javafx.css.StyleableProperty;
 import javafx.css.StyleablePropertyFactory;
+import javafx.scene.control.Skin;
 import javafx.scene.control.TextField;
-import javafx.scene.layout.HBox;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.Text;
-import javafx.util.Duration;
 
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 
 public class ExtendedControl extends TextField {
     private static final StyleablePropertyFactory<ExtendedControl> FACTORY                       = new StyleablePropertyFactory<>(TextField.getClassCssMetaData());
     private static final Color                                     DEFAULT_MATERIAL_DESIGN_COLOR = Color.web("#009688");
     private static final Color                                     DEFAULT_PROMPT_TEXT_COLOR     = Color.web("#757575");
-    private static final double                                    STD_FONT_SIZE                 = 13;
-    private static final double                                    SMALL_FONT_SIZE               = 10;
-    private static final double                                    TOP_OFFSET_Y                  = 4;
-    private static final int                                       ANIMATION_DURATION            = 60;
     private static final CssMetaData<ExtendedControl, Color>       MATERIAL_DESIGN_COLOR         = FACTORY.createColorCssMetaData("-material-design-color", s -> s.materialDesignColor, DEFAULT_MATERIAL_DESIGN_COLOR, false);
     private static final CssMetaData<ExtendedControl, Color>       PROMPT_TEXT_COLOR             = FACTORY.createColorCssMetaData("-prompt-text-color", s -> s.promptTextColor, DEFAULT_PROMPT_TEXT_COLOR, false);
+    private static final PseudoClass                               ERROR_PSEUDO_CLASS            = PseudoClass.getPseudoClass("error");
+    private static final long                                      DEFAULT_VALIDATION_DEBOUNCE   = 250;
     private static       String                                    userAgentStyleSheet;
+    private static       ScheduledExecutorService                  defaultValidationExecutor;
     private        final StyleableProperty<Color>                  materialDesignColor;
     private        final StyleableProperty<Color>                  promptTextColor;
-    private              Text                                      promptText;
-    private              HBox                                      promptTextBox;
-    private              DoubleProperty                            fontSize;
-    private              Timeline                                  timeline;
+    private        final ReadOnlyBooleanWrapper                    valid;
+    private              Predicate<String>                         validator;
+    private              ScheduledExecutorService                  validationExecutor;
+    private              long                                      validationDebounce;
+    private              ScheduledFuture<?>                        pendingValidation;
+    private              long                                      validationRun;
+    private              InvalidationListener                      textListener;
 
 
     // ******************** Constructors **************************************
@@ -65,51 +71,101 @@ public class ExtendedControl extends TextField {
 
         materialDesignColor = new SimpleStyleableObjectProperty<>(MATERIAL_DESIGN_COLOR, this, "materialDesignColor");
         promptTextColor     = new SimpleStyleableObjectProperty<>(PROMPT_TEXT_COLOR, this, "promptTextColor");
+        valid               = new ReadOnlyBooleanWrapper(ExtendedControl.this, "valid", true) {
+            @Override protected void invalidated() { pseudoClassStateChanged(ERROR_PSEUDO_CLASS, !get()); }
+        };
+        validationDebounce  = DEFAULT_VALIDATION_DEBOUNCE;
+        textListener        = o -> validate();
 
-        fontSize            = new SimpleDoubleProperty(ExtendedControl.this, "fontSize", getFont().getSize());
-        timeline            = new Timeline();
-
-        initGraphics();
-        registerListeners();
-    }
-
-
-    // ******************** Initialization ************************************
-    private void initGraphics() {
         getStyleClass().addAll("material-field");
 
-        final String fontFamily = getFont().getFamily();
-        final int    length      = getText().length();
-
-        promptText = new Text(getPromptText());
-        promptText.getStyleClass().add("prompt-text");
+        textProperty().addListener(textListener);
+        sceneProperty().addListener((o, ov, nv) -> {
+            // A pending validation keeps the control reachable from the executor
+            if (null == nv) {
+                cancelValidation();
+            } else {
+                validate();
+            }
+        });
+    }
 
-        promptTextBox = new HBox(promptText);
-        promptTextBox.getStyleClass().add("material-field");
 
-        if (!isEditable() || isDisabled() || length > 0) {
-            promptText.setFont(Font.font(fontFamily, SMALL_FONT_SIZE));
-            promptTextBox.setTranslateY(-STD_FONT_SIZE - TOP_OFFSET_Y);
+    // ******************** Methods *******************************************
+    public boolean isValid() { return valid.get(); }
+    public ReadOnlyBooleanProperty validProperty() { return valid.getReadOnlyProperty(); }
+
+    public Predicate<String> getValidator() { return validator; }
+    /**
+     * The validator will be called with the current text on the validation executor
+     * once no further change happened within the validation debounce. A newer change
+     * cancels a pending or running validation and only the result of the latest run
+     * will be applied on the FX application thread.
+     */
+    public void setValidator(final Predicate<String> validator) {
+        this.validator = validator;
+        if (null == validator) {
+            cancelValidation();
+            valid.set(true);
         } else {
-            promptText.setFont(Font.font(fontFamily, STD_FONT_SIZE));
+            validate();
         }
+    }
 
-        getChildren().addAll(promptTextBox);
+    public ScheduledExecutorService getValidationExecutor() {
+        if (null == validationExecutor) { return getDefaultValidationExecutor(); }
+        return validationExecutor;
+    }
+    public void setValidationExecutor(final ScheduledExecutorService validationExecutor) { this.validationExecutor = validationExecutor; }
+
+    public long getValidationDebounce() { return validationDebounce; }
+    public void setValidationDebounce(final long milliseconds) { validationDebounce = Math.max(0, milliseconds); }
+
+    /**
+     * Cancels a pending validation and stops validating text changes.
+     */
+    public void dispose() {
+        cancelValidation();
+        textProperty().removeListener(textListener);
+        validator = null;
     }
 
-    private void registerListeners() {
-        textProperty().addListener(o -> handleTextAndFocus(isFocused()));
-        promptTextProperty().addListener(o -> promptText.setText(getPromptText()));
-        focusedProperty().addListener(o -> handleTextAndFocus(isFocused()));
-        promptTextColorProperty().addListener(o -> promptText.setFill(getPromptTextColor()));
-        fontSize.addListener(o -> promptText.setFont(Font.font(fontSize.get())));
-        timeline.setOnFinished(evt -> {
-            final int length = null == getText() ? 0 : getText().length();
-            if (length > 0 && promptTextBox.getTranslateY() >= 0) {
-                promptTextBox.setTranslateY(-STD_FONT_SIZE - TOP_OFFSET_Y);
-                fontSize.set(SMALL_FONT_SIZE);
+    private void validate() {
+        if (null == validator) { return; }
+        cancelValidation();
+        final long              run       = ++validationRun;
+        final String            text      = null == getText() ? "" : getText();
+        final Predicate<String> predicate = validator;
+        pendingValidation = getValidationExecutor().schedule(() -> {
+            boolean result;
+            try {
+                result = predicate.test(text);
+            } catch (RuntimeException e) {
+                result = false;
             }
-        });
+            if (Thread.currentThread().isInterrupted()) { return; }
+            final boolean isValid = result;
+            Platform.runLater(() -> {
+                if (run == validationRun) { valid.set(isValid); }
+            });
+        }, validationDebounce, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelValidation() {
+        if (null == pendingValidation) { return; }
+        pendingValidation.cancel(true);
+        pendingValidation = null;
+    }
+
+    private static synchronized ScheduledExecutorService getDefaultValidationExecutor() {
+        if (null == defaultValidationExecutor) {
+            defaultValidationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ExtendedControl-Validation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return defaultValidationExecutor;
     }
 
 
@@ -123,58 +179,17 @@ public class ExtendedControl extends TextField {
     public ObjectProperty<Color> promptTextColorProperty() { return (ObjectProperty<Color>) promptTextColor; }
 
 
-    // ******************** Misc **********************************************
-    private void handleTextAndFocus(final boolean isFocused) {
-        final int length = null == getText() ? 0 : getText().length();
-
-        KeyFrame kf0;
-        KeyFrame kf1;
-
-        KeyValue kvTextY0;
-        KeyValue kvTextY1;
-        KeyValue kvTextFontSize0;
-        KeyValue kvTextFontSize1;
-        KeyValue kvPromptTextFill0;
-        KeyValue kvPromptTextFill1;
-
-        if (isFocused | length > 0 || isDisabled() || !isEditable()) {
-            if (Double.compare(promptTextBox.getTranslateY(), -STD_FONT_SIZE - TOP_OFFSET_Y) != 0) {
-                kvTextY0          = new KeyValue(promptTextBox.translateYProperty(), 0);
-                kvTextY1          = new KeyValue(promptTextBox.translateYProperty(), -STD_FONT_SIZE - TOP_OFFSET_Y);
-                kvTextFontSize0   = new KeyValue(fontSize, STD_FONT_SIZE);
-                kvTextFontSize1   = new KeyValue(fontSize, SMALL_FONT_SIZE);
-                kvPromptTextFill0 = new KeyValue(promptTextColorProperty(), DEFAULT_PROMPT_TEXT_COLOR);
-                kvPromptTextFill1 = new KeyValue(promptTextColorProperty(), isFocused ? getMaterialDesignColor() : DEFAULT_PROMPT_TEXT_COLOR);
-
-                kf0 = new KeyFrame(Duration.ZERO, kvTextY0, kvTextFontSize0, kvPromptTextFill0);
-                kf1 = new KeyFrame(Duration.millis(ANIMATION_DURATION), kvTextY1, kvTextFontSize1, kvPromptTextFill1);
-
-                timeline.getKeyFrames().setAll(kf0, kf1);
-                timeline.play();
-            }
-            promptText.setFill(isFocused ? getMaterialDesignColor() : DEFAULT_PROMPT_TEXT_COLOR);
-        } else {
-            if (Double.compare(promptTextBox.getTranslateY(), 0) != 0) {
-                kvTextY0          = new KeyValue(promptTextBox.translateYProperty(), promptTextBox.getTranslateY());
-                kvTextY1          = new KeyValue(promptTextBox.translateYProperty(), 0);
-                kvTextFontSize0   = new KeyValue(fontSize, SMALL_FONT_SIZE);
-                kvTextFontSize1   = new KeyValue(fontSize, STD_FONT_SIZE);
-                kvPromptTextFill0 = new KeyValue(promptTextColorProperty(), getMaterialDesignColor());
-                kvPromptTextFill1 = new KeyValue(promptTextColorProperty(), DEFAULT_PROMPT_TEXT_COLOR);
-
-                kf0 = new KeyFrame(Duration.ZERO, kvTextY0, kvTextFontSize0, kvPromptTextFill0);
-                kf1 = new KeyFrame(Duration.millis(ANIMATION_DURATION), kvTextY1, kvTextFontSize1, kvPromptTextFill1);
-
-                timeline.getKeyFrames().setAll(kf0, kf1);
-                timeline.play();
-            }
-        }
+    // ******************** Style related *************************************
+    @Override protected Skin<?> createDefaultSkin() {
+        SkinEvent event = new SkinEvent();
+        event.begin();
+        Skin<?> skin = new MaterialTextFieldSkin(ExtendedControl.this);
+        event.commit(ExtendedControl.this, "material");
+        return skin;
     }
 
-
-    // ******************** Style related *************************************
     @Override public String getUserAgentStylesheet() {
-        if (null == userAgentStyleSheet) { userAgentStyleSheet = getClass().getResource("extended.css").toExternalForm(); }
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = Helper.getStylesheet(ExtendedControl.class, "extended.css"); }
         return userAgentStyleSheet;
     }
 
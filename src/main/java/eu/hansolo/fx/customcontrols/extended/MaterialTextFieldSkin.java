@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.extended;
+
+import eu.hansolo.fx.customcontrols.tools.AnimationEvent;
+import eu.hansolo.fx.customcontrols.tools.QualityAware;
+import eu.hansolo.fx.customcontrols.tools.QualityLevel;
+import eu.hansolo.fx.customcontrols.tools.QualityManager;
+import eu.hansolo.fx.customcontrols.tools.RenderStats;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.VPos;
+import javafx.scene.control.skin.TextFieldSkin;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Line;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Scale;
+import javafx.util.Duration;
+
+
+/**
+ * TextFieldSkin that draws the floating prompt text and the underline itself
+ * with one Text and one Line instead of an extra css styled container and borders.
+ */
+public class MaterialTextFieldSkin extends TextFieldSkin implements QualityAware {
+    private static final Color                DEFAULT_LINE_COLOR  = Color.web("#616161");
+    private static final Color                DISABLED_LINE_COLOR = Color.BLACK;
+    private static final double               STD_FONT_SIZE       = 13;
+    private static final double               SMALL_FONT_SIZE     = 10;
+    private static final double               SMALL_SCALE         = SMALL_FONT_SIZE / STD_FONT_SIZE;
+    private static final double               TOP_OFFSET_Y        = 4;
+    private static final int                  ANIMATION_DURATION  = 60;
+    private static final RenderStats          STATS               = RenderStats.of(MaterialTextFieldSkin.class);
+    private              ExtendedControl      control;
+    private              Text                 promptText;
+    private              Scale                promptTextScale;
+    private              Line                 underline;
+    private              Timeline             floatUp;
+    private              Timeline             floatDown;
+    private              boolean              floating;
+    private              boolean              empty;
+    private              AnimationEvent       animationEvent;
+    private              boolean              animating;
+    private              boolean              transitionsEnabled;
+    private              InvalidationListener textListener;
+    private              InvalidationListener focusListener;
+    private              InvalidationListener promptTextListener;
+    private              InvalidationListener colorListener;
+    private              InvalidationListener stateListener;
+
+
+    // ******************** Constructors **************************************
+    public MaterialTextFieldSkin(final ExtendedControl control) {
+        super(control);
+        this.control            = control;
+        this.transitionsEnabled = true;
+        textListener            = o -> handleControlPropertyChanged("TEXT");
+        focusListener           = o -> handleControlPropertyChanged("FOCUSED");
+        promptTextListener      = o -> handleControlPropertyChanged("PROMPT_TEXT");
+        colorListener           = o -> handleControlPropertyChanged("COLOR");
+        stateListener           = o -> handleControlPropertyChanged("STATE");
+        initGraphics();
+        registerListeners();
+        QualityManager.getInstance().register(this);
+    }
+
+
+    // ******************** Initialization ************************************
+    private void initGraphics() {
+        empty = null == control.getText() || control.getText().isEmpty();
+
+        promptText = new Text(control.getPromptText());
+        promptText.setManaged(false);
+        promptText.setMouseTransparent(true);
+        promptText.setTextOrigin(VPos.TOP);
+        promptText.setFont(Font.font(control.getFont().getFamily(), STD_FONT_SIZE));
+        promptText.setFill(control.getPromptTextColor());
+
+        // Scale around the top left corner so that the label shrinks towards its start like a smaller font would
+        promptTextScale = new Scale(1, 1, 0, 0);
+        promptText.getTransforms().add(promptTextScale);
+
+        underline = new Line();
+        underline.setManaged(false);
+        underline.setMouseTransparent(true);
+
+        // The animations are built once and only replayed, they always start from the current values
+        floatUp   = new Timeline(new KeyFrame(Duration.millis(ANIMATION_DURATION),
+                                              new KeyValue(promptText.translateYProperty(), -STD_FONT_SIZE - TOP_OFFSET_Y),
+                                              new KeyValue(promptTextScale.xProperty(), SMALL_SCALE),
+                                              new KeyValue(promptTextScale.yProperty(), SMALL_SCALE)));
+        floatDown = new Timeline(new KeyFrame(Duration.millis(ANIMATION_DURATION),
+                                              new KeyValue(promptText.translateYProperty(), 0),
+                                              new KeyValue(promptTextScale.xProperty(), 1),
+                                              new KeyValue(promptTextScale.yProperty(), 1)));
+        floatUp.setOnFinished(e -> handleAnimationFinished());
+        floatDown.setOnFinished(e -> handleAnimationFinished());
+
+        floating = !control.isEditable() || control.isDisabled() || !empty;
+        if (floating) {
+            promptTextScale.setX(SMALL_SCALE);
+            promptTextScale.setY(SMALL_SCALE);
+            promptText.setTranslateY(-STD_FONT_SIZE - TOP_OFFSET_Y);
+        }
+        updateUnderline();
+
+        getChildren().addAll(promptText, underline);
+    }
+
+    private void registerListeners() {
+        control.textProperty().addListener(textListener);
+        control.focusedProperty().addListener(focusListener);
+        control.promptTextProperty().addListener(promptTextListener);
+        control.promptTextColorProperty().addListener(colorListener);
+        control.materialDesignColorProperty().addListener(colorListener);
+        control.editableProperty().addListener(stateListener);
+        control.disabledProperty().addListener(stateListener);
+        control.validProperty().addListener(stateListener);
+    }
+
+
+    // ******************** Methods *******************************************
+    protected void handleControlPropertyChanged(final String property) {
+        if ("TEXT".equals(property)) {
+            // Only a change between empty and non empty text can move the label
+            final boolean isEmpty = null == control.getText() || control.getText().isEmpty();
+            if (isEmpty == empty) { return; }
+            empty = isEmpty;
+            handleTextAndFocus();
+        } else if ("FOCUSED".equals(property) || "STATE".equals(property)) {
+            handleTextAndFocus();
+            updateUnderline();
+        } else if ("PROMPT_TEXT".equals(property)) {
+            promptText.setText(control.getPromptText());
+        } else if ("COLOR".equals(property)) {
+            promptText.setFill(control.isFocused() ? control.getMaterialDesignColor() : control.getPromptTextColor());
+            updateUnderline();
+        }
+    }
+
+    private void handleTextAndFocus() {
+        final boolean isFocused = control.isFocused();
+        if (isFocused || !empty || control.isDisabled() || !control.isEditable()) {
+            if (!floating) {
+                floating = true;
+                moveLabel(floatDown, floatUp);
+            }
+            promptText.setFill(isFocused ? control.getMaterialDesignColor() : control.getPromptTextColor());
+        } else if (floating) {
+            floating = false;
+            moveLabel(floatUp, floatDown);
+            promptText.setFill(control.getPromptTextColor());
+        }
+    }
+
+    // Without transitions the label jumps to the end values of the animation
+    private void moveLabel(final Timeline stop, final Timeline play) {
+        stop.stop();
+        if (transitionsEnabled) {
+            startAnimationEvent();
+            setAnimating(true);
+            play.playFromStart();
+        } else {
+            play.stop();
+            handleAnimationFinished();
+            promptText.setTranslateY(floating ? -STD_FONT_SIZE - TOP_OFFSET_Y : 0);
+            promptTextScale.setX(floating ? SMALL_SCALE : 1);
+            promptTextScale.setY(floating ? SMALL_SCALE : 1);
+        }
+    }
+
+    @Override public void applyQuality(final QualityLevel level) { transitionsEnabled = level.isTransitionsEnabled(); }
+
+    private void handleAnimationFinished() {
+        commitAnimationEvent();
+        setAnimating(false);
+    }
+
+    private void setAnimating(final boolean animating) {
+        if (this.animating == animating) { return; }
+        this.animating = animating;
+        if (animating) {
+            STATS.animationStarted();
+        } else {
+            STATS.animationStopped();
+        }
+    }
+
+    // An interrupted animation is committed when the next one starts
+    private void startAnimationEvent() {
+        commitAnimationEvent();
+        if (!AnimationEvent.isRecording()) { return; }
+        animationEvent = new AnimationEvent();
+        animationEvent.begin();
+    }
+
+    private void commitAnimationEvent() {
+        if (null == animationEvent || null == control) { return; }
+        animationEvent.commit(control, floating ? "float up" : "float down");
+        animationEvent = null;
+    }
+
+    private void updateUnderline() {
+        final boolean isFocused = control.isFocused();
+        underline.setStrokeWidth(isFocused ? 2 : 1);
+        if (control.isDisabled()) {
+            underline.setStroke(DISABLED_LINE_COLOR);
+        } else {
+            underline.setStroke(isFocused || !control.isValid() ? control.getMaterialDesignColor() : DEFAULT_LINE_COLOR);
+        }
+        if (control.isDisabled() || !control.isEditable()) {
+            if (underline.getStrokeDashArray().isEmpty()) { underline.getStrokeDashArray().setAll(2.0, 3.0); }
+        } else if (!underline.getStrokeDashArray().isEmpty()) {
+            underline.getStrokeDashArray().clear();
+        }
+        positionUnderline();
+    }
+
+    private void positionUnderline() {
+        final double lineY = control.getHeight() - underline.getStrokeWidth() * 0.5;
+        underline.setStartX(0);
+        underline.setStartY(lineY);
+        underline.setEndX(control.getWidth());
+        underline.setEndY(lineY);
+    }
+
+    @Override public void dispose() {
+        if (null == control) { return; }
+        QualityManager.getInstance().unregister(this);
+        floatUp.stop();
+        floatDown.stop();
+        setAnimating(false);
+        control.textProperty().removeListener(textListener);
+        control.focusedProperty().removeListener(focusListener);
+        control.promptTextProperty().removeListener(promptTextListener);
+        control.promptTextColorProperty().removeListener(colorListener);
+        control.materialDesignColorProperty().removeListener(colorListener);
+        control.editableProperty().removeListener(stateListener);
+        control.disabledProperty().removeListener(stateListener);
+        control.validProperty().removeListener(stateListener);
+        getChildren().removeAll(promptText, underline);
+        super.dispose();
+        control = null;
+    }
+
+
+    // ******************** Layout ********************************************
+    @Override protected void layoutChildren(final double x, final double y, final double width, final double height) {
+        super.layoutChildren(x, y, width, height);
+        promptText.setLayoutX(x);
+        promptText.setLayoutY(y);
+        positionUnderline();
+    }
+}
@@ -17,6 +17,7 @@
 package eu.hansolo.fx.customcontrols.regionbased;
 
 import eu.hansolo.fx.customcontrols.regionbased.RegionControl.Type;
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -80,6 +81,7 @@ public class DemoRegionBased extends Application {
         pane.setPadding(new Insets(8));
 
         Scene scene = new Scene(pane);
+        InputRecorder.recordIfRequested(scene, getClass().getName());
 
         stage.setTitle("Region based Control");
         stage.setScene(scene);
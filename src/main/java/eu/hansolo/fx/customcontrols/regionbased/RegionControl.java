@@ -16,6 +16,12 @@
 
 package eu.hansolo.fx.customcontrols.regionbased;
 
+import eu.hansolo.fx.customcontrols.tools.ActionDispatcher;
+import eu.hansolo.fx.customcontrols.tools.CssEvent;
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.InteractiveControl;
+import eu.hansolo.fx.customcontrols.tools.RenderStats;
+import eu.hansolo.fx.customcontrols.tools.Resettable;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
@@ -23,10 +29,13 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
 import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
 import javafx.scene.Node;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Region;
 import javafx.scene.shape.Circle;
+import javafx.scene.shape.SVGPath;
 import javafx.scene.shape.StrokeType;
 
 import java.util.function.Consumer;
@@ -38,7 +47,7 @@ import java.util.function.Consumer;
  * Time: 08:17
  */
 @DefaultProperty("children")
-public class RegionControl extends Region {
+public class RegionControl extends Region implements InteractiveControl, Resettable {
     public enum Type { CLOSE, MINIMIZE, ZOOM }
 
     private static final double               PREFERRED_WIDTH       = 12;
@@ -53,17 +62,29 @@ public class RegionControl extends Region {
     private static final PseudoClass          HOVERED_PSEUDO_CLASS  = PseudoClass.getPseudoClass("hovered");
     private static final PseudoClass          PRESSED_PSEUDO_CLASS  = PseudoClass.getPseudoClass("pressed");
     private static final PseudoClass          STATE_PSEUDO_CLASS    = PseudoClass.getPseudoClass("state");
+    private static final SVGPath              CLOSE_SYMBOL          = createSymbol("M6.001,5.429l2.554,-2.555l0.571,0.571l-2.555,2.554l2.55,2.55l-0.572,0.572l-2.55,-2.55l-2.554,2.555l-0.571,-0.571l2.555,-2.554l-2.55,-2.55l0.572,-0.572l2.55,2.55Z");
+    private static final SVGPath              MINIMIZE_SYMBOL       = createSymbol("M2.0,5.5l8,0l0,1l-8,0l0,-1Z");
+    private static final SVGPath              ZOOM_SYMBOL           = createSymbol("M2.696,2.582l4.545,0.656l-3.889,3.889l-0.656,-4.545ZM9.533,9.418l-0.656,-4.545l-3.889,3.889l4.545,0.656Z");
+    private static final SVGPath              ZOOM_STATE_SYMBOL     = createSymbol("M6.225,6.111L10.77,6.767L6.881,10.656L6.225,6.111ZM6.004,5.889L5.348,1.344L1.459,5.233L6.004,5.889Z");
+    private static       String               userAgentStyleSheet;
+    private              boolean              _hovered;
     private              BooleanProperty      hovered;
+    private              boolean              _state;
     private              BooleanProperty      state;
-    private static       String               userAgentStyleSheet;
+    private              Type                 _type;
     private              ObjectProperty<Type> type;
     private              double               size;
     private              double               width;
     private              double               height;
     private              Circle               circle;
     private              Region               symbol;
+    private              boolean              inputDelegated;
+    private              boolean              pressDispatched;
+    private              EventHandler<MouseEvent> mouseFilter;
     private              Consumer<MouseEvent> mousePressedConsumer;
     private              Consumer<MouseEvent> mouseReleasedConsumer;
+    private              ActionDispatcher     actionDispatcher;
+    private              RenderStats          stats;
 
 
     // ******************** Constructors **************************************
@@ -71,43 +92,14 @@ public class RegionControl extends Region {
         this(Type.CLOSE);
     }
     public RegionControl(final Type type) {
-        this.type    = new ObjectPropertyBase<>(type) {
-            @Override protected void invalidated() {
-                switch(get()) {
-                    case CLOSE    -> {
-                        pseudoClassStateChanged(CLOSE_PSEUDO_CLASS, true);
-                        pseudoClassStateChanged(MINIMIZE_PSEUDO_CLASS, false);
-                        pseudoClassStateChanged(ZOOM_PSEUDO_CLASS, false);
-                    }
-                    case MINIMIZE -> {
-                        pseudoClassStateChanged(CLOSE_PSEUDO_CLASS, false);
-                        pseudoClassStateChanged(MINIMIZE_PSEUDO_CLASS, true);
-                        pseudoClassStateChanged(ZOOM_PSEUDO_CLASS, false);
-                    }
-                    case ZOOM     -> {
-                        pseudoClassStateChanged(CLOSE_PSEUDO_CLASS, false);
-                        pseudoClassStateChanged(MINIMIZE_PSEUDO_CLASS, false);
-                        pseudoClassStateChanged(ZOOM_PSEUDO_CLASS, true);
-                    }
-                }
-            }
-            @Override public Object getBean() { return RegionControl.this; }
-            @Override public String getName() { return "type"; }
-        };
-        this.hovered = new BooleanPropertyBase() {
-            @Override protected void invalidated() { pseudoClassStateChanged(HOVERED_PSEUDO_CLASS, get()); }
-            @Override public Object getBean() { return RegionControl.this; }
-            @Override public String getName() { return "hovered"; }
-        };
-        this.state   = new BooleanPropertyBase(false) {
-            @Override protected void invalidated() { pseudoClassStateChanged(STATE_PSEUDO_CLASS, get()); }
-            @Override public Object getBean() { return RegionControl.this; }
-            @Override public String getName() { return "state"; }
-        };
+        this._type    = type;
+        this._hovered = false;
+        this._state   = false;
+        this.stats    = RenderStats.of(RegionControl.class);
 
-        pseudoClassStateChanged(CLOSE_PSEUDO_CLASS,    Type.CLOSE    == type);
-        pseudoClassStateChanged(MINIMIZE_PSEUDO_CLASS, Type.MINIMIZE == type);
-        pseudoClassStateChanged(ZOOM_PSEUDO_CLASS,     Type.ZOOM     == type);
+        changePseudoClass(CLOSE_PSEUDO_CLASS,    Type.CLOSE    == type);
+        changePseudoClass(MINIMIZE_PSEUDO_CLASS, Type.MINIMIZE == type);
+        changePseudoClass(ZOOM_PSEUDO_CLASS,     Type.ZOOM     == type);
 
         initGraphics();
         registerListeners();
@@ -133,6 +125,8 @@ public class RegionControl extends Region {
 
         symbol = new Region();
         symbol.getStyleClass().add("symbol");
+        symbol.setScaleShape(false);
+        updateSymbol();
 
         getChildren().setAll(circle, symbol);
     }
@@ -140,15 +134,23 @@ public class RegionControl extends Region {
     private void registerListeners() {
         widthProperty().addListener(o -> resize());
         heightProperty().addListener(o -> resize());
-        addEventFilter(MouseEvent.MOUSE_PRESSED, e -> {
-            pseudoClassStateChanged(PRESSED_PSEUDO_CLASS, true);
-            if (null == mousePressedConsumer) { return; }
-            mousePressedConsumer.accept(e);
-        });
-        addEventFilter(MouseEvent.MOUSE_RELEASED, e -> {
-            pseudoClassStateChanged(PRESSED_PSEUDO_CLASS, false);
-            if (null == mouseReleasedConsumer) { return; }
-            mouseReleasedConsumer.accept(e);
+        if (RenderStats.isPerInstance()) {
+            idProperty().addListener(o -> updateStats());
+            sceneProperty().addListener(o -> updateStats());
+        }
+        // One filter for press and release instead of one per event type
+        mouseFilter = e -> {
+            EventType<? extends MouseEvent> type = e.getEventType();
+            if (MouseEvent.MOUSE_PRESSED == type) {
+                handlePress(e);
+            } else if (MouseEvent.MOUSE_RELEASED == type) {
+                handleRelease(e);
+            }
+        };
+        addEventFilter(MouseEvent.ANY, mouseFilter);
+        sceneProperty().addListener((o, ov, nv) -> {
+            // A control that leaves the scene will never see the matching exit or release event
+            if (null == nv) { resetInteraction(); }
         });
     }
 
@@ -163,24 +165,195 @@ public class RegionControl extends Region {
 
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
-    public Type getType() { return type.get(); }
-    public void setType(final Type type) { this.type.set(type); }
-    public ObjectProperty<Type> typeProperty() { return type; }
+    // Properties are only created when they are requested, most instances only use the plain getters and setters
+    public Type getType() { return null == type ? _type : type.get(); }
+    public void setType(final Type type) {
+        if (null == this.type) {
+            _type = type;
+            updateType();
+        } else {
+            this.type.set(type);
+        }
+    }
+    public ObjectProperty<Type> typeProperty() {
+        if (null == type) {
+            type = new ObjectPropertyBase<>(_type) {
+                @Override protected void invalidated() { updateType(); }
+                @Override public Object getBean() { return RegionControl.this; }
+                @Override public String getName() { return "type"; }
+            };
+            _type = null;
+        }
+        return type;
+    }
 
-    public boolean isHovered() { return hovered.get(); }
-    public void setHovered(final boolean hovered) { this.hovered.set(hovered); }
-    public BooleanProperty hoveredProperty() { return hovered; }
+    public boolean isHovered() { return null == hovered ? _hovered : hovered.get(); }
+    public void setHovered(final boolean hovered) {
+        if (null == this.hovered) {
+            _hovered = hovered;
+            changePseudoClass(HOVERED_PSEUDO_CLASS, hovered);
+        } else {
+            this.hovered.set(hovered);
+        }
+    }
+    public BooleanProperty hoveredProperty() {
+        if (null == hovered) {
+            hovered = new BooleanPropertyBase(_hovered) {
+                @Override protected void invalidated() { changePseudoClass(HOVERED_PSEUDO_CLASS, get()); }
+                @Override public Object getBean() { return RegionControl.this; }
+                @Override public String getName() { return "hovered"; }
+            };
+        }
+        return hovered;
+    }
 
-    public boolean getState() { return state.get(); }
-    public void setState(final boolean state) { this.state.set(state); }
-    public BooleanProperty stateProperty() { return state; }
+    public boolean getState() { return null == state ? _state : state.get(); }
+    public void setState(final boolean state) {
+        if (null == this.state) {
+            _state = state;
+            updateState();
+        } else {
+            this.state.set(state);
+        }
+    }
+    public BooleanProperty stateProperty() {
+        if (null == state) {
+            state = new BooleanPropertyBase(_state) {
+                @Override protected void invalidated() { updateState(); }
+                @Override public Object getBean() { return RegionControl.this; }
+                @Override public String getName() { return "state"; }
+            };
+        }
+        return state;
+    }
 
     public void setOnMousePressed(final Consumer<MouseEvent> mousePressedConsumer)   { this.mousePressedConsumer  = mousePressedConsumer; }
     public void setOnMouseReleased(final Consumer<MouseEvent> mouseReleasedConsumer) { this.mouseReleasedConsumer = mouseReleasedConsumer; }
 
+    public ActionDispatcher getActionDispatcher() { return actionDispatcher; }
+    /**
+     * Runs the mouse consumers with the given dispatcher instead of synchronously
+     * on the FX application thread, null switches back to synchronous calls.
+     * Consuming the event in a dispatched consumer has no effect. The policy of
+     * the dispatcher only applies to presses. A release is always queued behind
+     * its own press, so the consumers never run concurrently and every press
+     * that runs is followed by its release. The release of a dropped press is
+     * dropped as well.
+     */
+    public void setActionDispatcher(final ActionDispatcher actionDispatcher) { this.actionDispatcher = actionDispatcher; }
+
+    @Override public void setInputDelegated(final boolean delegated) {
+        if (inputDelegated == delegated) { return; }
+        inputDelegated = delegated;
+        if (delegated) {
+            removeEventFilter(MouseEvent.ANY, mouseFilter);
+        } else {
+            addEventFilter(MouseEvent.ANY, mouseFilter);
+        }
+    }
+
+    @Override public void handleHover(final boolean hovered) { setHovered(hovered); }
+
+    @Override public void handlePress(final MouseEvent event) {
+        changePseudoClass(PRESSED_PSEUDO_CLASS, true);
+        pressDispatched = false;
+        if (null == mousePressedConsumer) { return; }
+        if (null == actionDispatcher) {
+            mousePressedConsumer.accept(event);
+        } else {
+            pressDispatched = actionDispatcher.dispatch(this, mousePressedConsumer, event);
+        }
+    }
+
+    @Override public void handleRelease(final MouseEvent event) {
+        changePseudoClass(PRESSED_PSEUDO_CLASS, false);
+        if (null == mouseReleasedConsumer) { return; }
+        if (null == actionDispatcher) {
+            mouseReleasedConsumer.accept(event);
+        } else if (null == mousePressedConsumer) {
+            actionDispatcher.dispatch(this, mouseReleasedConsumer, event);
+        } else if (pressDispatched) {
+            // Shares the key with the press, so the release never overtakes it and is never dropped on its own
+            actionDispatcher.dispatchFollowUp(this, mouseReleasedConsumer, event);
+        }
+        pressDispatched = false;
+    }
+
+
+    @Override public void reset() {
+        if (null != type)    { type.unbind(); }
+        if (null != hovered) { hovered.unbind(); }
+        if (null != state)   { state.unbind(); }
+        setType(Type.CLOSE);
+        setState(false);
+        dispose();
+    }
+
+    /**
+     * Resets the hover and pressed state and removes the mouse consumers and
+     * the dispatcher.
+     */
+    public void dispose() {
+        resetInteraction();
+        stats.release();
+        stats                 = RenderStats.of(RegionControl.class);
+        mousePressedConsumer  = null;
+        mouseReleasedConsumer = null;
+        actionDispatcher      = null;
+    }
+
+    // Instance statistics are only registered while the control is part of a scene
+    private void updateStats() {
+        RenderStats instanceStats = null == getScene() ? RenderStats.of(RegionControl.class) : RenderStats.of(RegionControl.class, getId());
+        stats.release();
+        stats = instanceStats;
+    }
+
+    private void resetInteraction() {
+        setHovered(false);
+        changePseudoClass(PRESSED_PSEUDO_CLASS, false);
+    }
+
+    private void updateType() {
+        Type type = getType();
+        changePseudoClass(CLOSE_PSEUDO_CLASS,    Type.CLOSE    == type);
+        changePseudoClass(MINIMIZE_PSEUDO_CLASS, Type.MINIMIZE == type);
+        changePseudoClass(ZOOM_PSEUDO_CLASS,     Type.ZOOM     == type);
+        updateSymbol();
+    }
+
+    private void updateState() {
+        changePseudoClass(STATE_PSEUDO_CLASS, getState());
+        updateSymbol();
+    }
+
+    private void changePseudoClass(final PseudoClass pseudoClass, final boolean active) {
+        CssEvent event = new CssEvent();
+        event.begin();
+        pseudoClassStateChanged(pseudoClass, active);
+        event.commit(RegionControl.this, pseudoClass.getPseudoClassName());
+    }
+
+    // Shared symbol geometry, parsed once instead of converting -fx-shape strings per instance
+    private void updateSymbol() {
+        if (null == symbol) { return; }
+        switch(getType()) {
+            case MINIMIZE -> symbol.setShape(MINIMIZE_SYMBOL);
+            case ZOOM     -> symbol.setShape(getState() ? ZOOM_STATE_SYMBOL : ZOOM_SYMBOL);
+            case CLOSE    -> symbol.setShape(CLOSE_SYMBOL);
+        }
+    }
+
+    private static SVGPath createSymbol(final String content) {
+        SVGPath path = new SVGPath();
+        path.setContent(content);
+        return path;
+    }
+
 
     // ******************** Layout ********************************************
     private void resize() {
+        long start = System.nanoTime();
         width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
         height = getHeight() - getInsets().getTop() - getInsets().getBottom();
         size   = width < height ? width : height;
@@ -197,10 +370,11 @@ public class RegionControl extends Region {
 
             symbol.setPrefSize(size, size);
         }
+        stats.redraw(System.nanoTime() - start);
     }
 
     @Override public String getUserAgentStylesheet() {
-        if (null == userAgentStyleSheet) { userAgentStyleSheet = RegionControl.class.getResource("region-based.css").toExternalForm(); }
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = Helper.getStylesheet(RegionControl.class, "region-based.css"); }
         return userAgentStyleSheet;
     }
 }
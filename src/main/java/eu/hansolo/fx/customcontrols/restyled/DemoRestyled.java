@@ -16,6 +16,8 @@
 
 package eu.hansolo.fx.customcontrols.restyled;
 
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -40,7 +42,8 @@ public class DemoRestyled extends Application {
         pane.setPadding(new Insets(20));
 
         Scene scene = new Scene(pane);
-        scene.getStylesheets().add(DemoRestyled.class.getResource("restyled.css").toExternalForm());
+        InputRecorder.recordIfRequested(scene, getClass().getName());
+        scene.getStylesheets().add(Helper.getStylesheet(DemoRestyled.class, "restyled.css"));
 
         stage.setTitle("Restyled Control");
         stage.setScene(scene);
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.restyled;
+
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Shows 100k rows with a Switch per row in a ListView and a TableView.
+ */
+public class DemoSwitchCells extends Application {
+    public  static final int            NO_OF_ROWS = 100_000;
+    private              ListView<Row>  listView;
+    private              TableView<Row> tableView;
+
+
+    @Override public void init() {
+        List<Row> data = new ArrayList<>(NO_OF_ROWS);
+        for (int i = 0; i < NO_OF_ROWS; i++) { data.add(new Row("Row " + i, i % 3 == 0)); }
+        ObservableList<Row> rows = FXCollections.observableList(data);
+
+        listView = new ListView<>(rows);
+        listView.setCellFactory(SwitchListCell.forListView(Row::onProperty, Row::getName));
+
+        TableColumn<Row, String> nameColumn = new TableColumn<>("Name");
+        nameColumn.setCellValueFactory(features -> new SimpleStringProperty(features.getValue().getName()));
+        TableColumn<Row, Boolean> onColumn = new TableColumn<>("On");
+        onColumn.setCellValueFactory(features -> features.getValue().onProperty());
+        onColumn.setCellFactory(SwitchTableCell.forTableColumn(Row::onProperty));
+
+        tableView = new TableView<>(rows);
+        tableView.getColumns().add(nameColumn);
+        tableView.getColumns().add(onColumn);
+    }
+
+    @Override public void start(final Stage stage) {
+        HBox pane = new HBox(20, listView, tableView);
+        pane.setPadding(new Insets(20));
+
+        Scene scene = new Scene(pane, 640, 480);
+        InputRecorder.recordIfRequested(scene, getClass().getName());
+        scene.getStylesheets().add(Helper.getStylesheet(DemoSwitchCells.class, "restyled.css"));
+
+        stage.setTitle("Switch Cells (" + NO_OF_ROWS + " rows)");
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    @Override public void stop() {
+        Platform.exit();
+        System.exit(0);
+    }
+
+    public ListView<Row> getListView() { return listView; }
+
+    public TableView<Row> getTableView() { return tableView; }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    public static class Row {
+        private final String          name;
+        private final BooleanProperty on;
+
+
+        public Row(final String name, final boolean on) {
+            this.name = name;
+            this.on   = new SimpleBooleanProperty(Row.this, "on", on);
+        }
+
+        public String getName() { return name; }
+
+        public boolean isOn() { return on.get(); }
+        public void setOn(final boolean on) { this.on.set(on); }
+        public BooleanProperty onProperty() { return on; }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.restyled;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.util.Callback;
+
+import java.util.function.Function;
+
+
+/**
+ * ListCell that shows a Switch bound to a BooleanProperty of the item.
+ * The Switch is created once per cell and stays in the scene graph while the
+ * cell is reused, it is only rebound and hidden for empty cells so that no
+ * css has to be applied again while scrolling.
+ */
+public class SwitchListCell<T> extends ListCell<T> {
+    private final Function<T, BooleanProperty> selectedPropertyExtractor;
+    private final Function<T, String>          textExtractor;
+    private final Switch                       toggle;
+    private       BooleanProperty              boundProperty;
+
+
+    // ******************** Constructors **************************************
+    public SwitchListCell(final Function<T, BooleanProperty> selectedPropertyExtractor) {
+        this(selectedPropertyExtractor, null);
+    }
+    public SwitchListCell(final Function<T, BooleanProperty> selectedPropertyExtractor, final Function<T, String> textExtractor) {
+        this.selectedPropertyExtractor = selectedPropertyExtractor;
+        this.textExtractor             = textExtractor;
+        this.toggle                    = new Switch();
+
+        getStyleClass().add("switch-list-cell");
+        setText(null);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        toggle.setVisible(false);
+        setGraphic(toggle);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static <T> Callback<ListView<T>, ListCell<T>> forListView(final Function<T, BooleanProperty> selectedPropertyExtractor) {
+        return list -> new SwitchListCell<>(selectedPropertyExtractor);
+    }
+    public static <T> Callback<ListView<T>, ListCell<T>> forListView(final Function<T, BooleanProperty> selectedPropertyExtractor, final Function<T, String> textExtractor) {
+        return list -> new SwitchListCell<>(selectedPropertyExtractor, textExtractor);
+    }
+
+    @Override protected void updateItem(final T item, final boolean empty) {
+        super.updateItem(item, empty);
+
+        BooleanProperty property = empty || null == item ? null : selectedPropertyExtractor.apply(item);
+        if (property != boundProperty) {
+            if (null != boundProperty) { toggle.selectedProperty().unbindBidirectional(boundProperty); }
+            boundProperty = property;
+            if (null != boundProperty) { toggle.selectedProperty().bindBidirectional(boundProperty); }
+        }
+
+        if (null == property) {
+            toggle.setVisible(false);
+            toggle.setText(null);
+        } else {
+            toggle.setText(null == textExtractor ? null : textExtractor.apply(item));
+            toggle.setVisible(true);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.restyled;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * TableCell that shows a Switch bound to a BooleanProperty of the row item.
+ * The property is taken from the row item directly instead of calling the
+ * cell value factory of the column again on every update. The Switch is created
+ * once per cell and stays in the scene graph while the cell is reused, it is
+ * only rebound and hidden for empty cells so that no css has to be applied
+ * again while scrolling.
+ */
+public class SwitchTableCell<S> extends TableCell<S, Boolean> {
+    private final Function<S, BooleanProperty> selectedPropertyExtractor;
+    private final Switch                       toggle;
+    private       BooleanProperty              boundProperty;
+
+
+    // ******************** Constructors **************************************
+    public SwitchTableCell(final Function<S, BooleanProperty> selectedPropertyExtractor) {
+        if (null == selectedPropertyExtractor) { throw new IllegalArgumentException("selectedPropertyExtractor must not be null"); }
+        this.selectedPropertyExtractor = selectedPropertyExtractor;
+        this.toggle                    = new Switch();
+
+        getStyleClass().add("switch-table-cell");
+        setText(null);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        toggle.setVisible(false);
+        setGraphic(toggle);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static <S> Callback<TableColumn<S, Boolean>, TableCell<S, Boolean>> forTableColumn(final Function<S, BooleanProperty> selectedPropertyExtractor) {
+        return column -> new SwitchTableCell<>(selectedPropertyExtractor);
+    }
+
+    @Override protected void updateItem(final Boolean item, final boolean empty) {
+        super.updateItem(item, empty);
+
+        S               rowItem  = empty ? null : getRowItem();
+        BooleanProperty property = null == rowItem ? null : selectedPropertyExtractor.apply(rowItem);
+        if (property != boundProperty) {
+            if (null != boundProperty) { toggle.selectedProperty().unbindBidirectional(boundProperty); }
+            boundProperty = property;
+            if (null != boundProperty) { toggle.selectedProperty().bindBidirectional(boundProperty); }
+        }
+
+        toggle.setVisible(null != property);
+    }
+
+    private S getRowItem() {
+        TableView<S> tableView = getTableView();
+        if (null == tableView) { return null; }
+        List<S> items = tableView.getItems();
+        int     index = getIndex();
+        return null == items || index < 0 || index >= items.size() ? null : items.get(index);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.state;
+
+
+/**
+ * Layout of the binary panel state, all values are big endian.
+ *
+ * Header (16 bytes):
+ *   int   magic 'FXPS'
+ *   short version
+ *   short flags (reserved)
+ *   int   number of records
+ *   int   reserved
+ *
+ * Record:
+ *   byte  kind
+ *   int   payload length in bytes
+ *   ...   payload
+ *
+ * Strings are stored as short length (-1 for null) followed by the UTF-8 bytes,
+ * colors as RGBA int. Readers skip unknown record kinds and trailing payload
+ * bytes, so later versions can add kinds and append fields to a payload.
+ */
+final class PanelStateFormat {
+    static final int   MAGIC            = 0x46585053; // FXPS
+    static final short VERSION          = 1;
+    static final int   HEADER_SIZE      = 16;
+    static final int   RECORD_HEADER    = 5;
+    static final int   MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    // Record kinds, only append new kinds
+    static final byte  CANVAS           = 1;
+    static final byte  REGION           = 2;
+    static final byte  CUSTOM           = 3;
+    static final byte  EXTENDED         = 4;
+    static final byte  COMBINED         = 5;
+
+    // Flags of the payloads
+    static final int   ACTIVE           = 1;
+    static final int   STATE            = 1 << 1;
+    static final int   HAS_COLOR_1      = 1 << 2;
+    static final int   HAS_COLOR_2      = 1 << 3;
+
+
+    // ******************** Constructors **************************************
+    private PanelStateFormat() {}
+}
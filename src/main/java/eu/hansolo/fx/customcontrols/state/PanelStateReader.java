@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.state;
+
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.combined.CombinedControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl.SkinType;
+import eu.hansolo.fx.customcontrols.extended.ExtendedControl;
+import eu.hansolo.fx.customcontrols.regionbased.RegionControl;
+import eu.hansolo.fx.customcontrols.tools.Quantity;
+import eu.hansolo.fx.customcontrols.tools.Unit;
+import eu.hansolo.fx.customcontrols.tools.UnitRegistry;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+
+/**
+ * Reads a panel state file through a MappedByteBuffer and creates the controls
+ * directly from the records, there is no intermediate representation. Colors
+ * are looked up in a small cache because most panels only use a few of them.
+ * A reader is not thread safe and should be used on the FX application thread.
+ */
+public class PanelStateReader implements AutoCloseable {
+    private static final int              COLOR_CACHE_SIZE = 256;
+    private static final RegionControl.Type[] REGION_TYPES = RegionControl.Type.values();
+    private static final SkinType[]       SKIN_TYPES       = SkinType.values();
+    private        final int              version;
+    private        final int              recordCount;
+    private        final int[]            colorKeys;
+    private        final Color[]          colors;
+    private              MappedByteBuffer buffer;
+    private              byte[]           scratch;
+    private              int              recordIndex;
+
+
+    // ******************** Constructors **************************************
+    public PanelStateReader(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < PanelStateFormat.HEADER_SIZE) { throw new IOException("Not a panel state file: " + file); }
+            if (size > Integer.MAX_VALUE) { throw new IOException("Panel state file too large: " + file); }
+            // The mapping stays valid after the channel was closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.getInt() != PanelStateFormat.MAGIC) { throw new IOException("Not a panel state file: " + file); }
+        version = buffer.getShort();
+        if (version < 1 || version > PanelStateFormat.VERSION) { throw new IOException("Unsupported panel state version " + version); }
+        buffer.getShort();
+        recordCount = buffer.getInt();
+        buffer.getInt();
+        colorKeys = new int[COLOR_CACHE_SIZE];
+        colors    = new Color[COLOR_CACHE_SIZE];
+        scratch   = new byte[256];
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getVersion() { return version; }
+
+    public int getRecordCount() { return recordCount; }
+
+    public boolean hasNext() { return null != buffer && recordIndex < recordCount; }
+
+    /**
+     * Creates the control of the next record or returns null if there are no
+     * more records. Records of unknown kinds are skipped.
+     */
+    public Node next() {
+        while (hasNext()) {
+            if (buffer.remaining() < Byte.BYTES + Integer.BYTES) { throw new IllegalStateException("Corrupt panel state record " + recordIndex); }
+            byte kind   = buffer.get();
+            int  length = buffer.getInt();
+            // Compared against the remaining bytes, position + length could overflow
+            if (length < 0 || length > buffer.remaining()) { throw new IllegalStateException("Corrupt panel state record " + recordIndex); }
+            int  end    = buffer.position() + length;
+            int  limit  = buffer.limit();
+            recordIndex++;
+            Node control;
+            try {
+                // A corrupt record must not read into the next one
+                buffer.limit(end);
+                control = switch(kind) {
+                    case PanelStateFormat.CANVAS   -> readCanvasControl();
+                    case PanelStateFormat.REGION   -> readRegionControl();
+                    case PanelStateFormat.CUSTOM   -> readCustomControl();
+                    case PanelStateFormat.EXTENDED -> readExtendedControl();
+                    case PanelStateFormat.COMBINED -> readCombinedControl();
+                    default                        -> null;
+                };
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalStateException("Corrupt panel state record " + (recordIndex - 1), e);
+            } finally {
+                buffer.limit(limit);
+            }
+            // Skips fields that were appended in later versions
+            buffer.position(end);
+            if (null != control) { return control; }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the controls of up to the given number of records and adds them to
+     * the given list. Returns the number of added controls.
+     */
+    public int readBatch(final List<? super Node> target, final int maxRecords) {
+        int count = 0;
+        while (count < maxRecords) {
+            Node control = next();
+            if (null == control) { break; }
+            target.add(control);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Restores all records in batches of the given size, one batch per pulse, so
+     * the ui stays responsive while a large workspace is loaded. The batch list is
+     * reused, the sink has to copy it, e.g. with pane.getChildren().addAll(batch).
+     * The future completes with the number of restored controls.
+     */
+    public CompletableFuture<Integer> restore(final int batchSize, final Consumer<List<Node>> sink) {
+        if (batchSize < 1) { throw new IllegalArgumentException("Batch size must be at least 1"); }
+        final CompletableFuture<Integer> future   = new CompletableFuture<>();
+        final List<Node>                 batch    = new ArrayList<>(batchSize);
+        final int[]                      restored = new int[1];
+        final AnimationTimer             timer    = new AnimationTimer() {
+            @Override public void handle(final long now) {
+                try {
+                    restored[0] += readBatch(batch, batchSize);
+                    if (!batch.isEmpty()) { sink.accept(batch); }
+                    batch.clear();
+                    if (!hasNext()) {
+                        stop();
+                        future.complete(restored[0]);
+                    }
+                } catch (RuntimeException e) {
+                    stop();
+                    future.completeExceptionally(e);
+                }
+            }
+        };
+        if (Platform.isFxApplicationThread()) {
+            timer.start();
+        } else {
+            Platform.runLater(timer::start);
+        }
+        return future;
+    }
+
+    @Override public void close() {
+        buffer  = null;
+        scratch = null;
+    }
+
+    private CanvasControl readCanvasControl() {
+        int           flags      = buffer.get();
+        String        text       = readString();
+        int           background = buffer.getInt();
+        int           foreground = buffer.getInt();
+        CanvasControl control    = new CanvasControl(null == text ? "" : text);
+        if ((flags & PanelStateFormat.HAS_COLOR_1) != 0) { control.setBackgroundColor(color(background)); }
+        if ((flags & PanelStateFormat.HAS_COLOR_2) != 0) { control.setForegroundColor(color(foreground)); }
+        if ((flags & PanelStateFormat.ACTIVE) != 0)      { control.setActive(true); }
+        return control;
+    }
+
+    private RegionControl readRegionControl() {
+        int           flags   = buffer.get();
+        int           type    = buffer.get();
+        RegionControl control = new RegionControl(REGION_TYPES[type]);
+        if ((flags & PanelStateFormat.STATE) != 0) { control.setState(true); }
+        return control;
+    }
+
+    private CustomControl readCustomControl() {
+        int           flags    = buffer.get();
+        int           skinType = buffer.get();
+        int           color    = buffer.getInt();
+        CustomControl control  = new CustomControl(SKIN_TYPES[skinType]);
+        if ((flags & PanelStateFormat.STATE) != 0)       { control.setState(true); }
+        if ((flags & PanelStateFormat.HAS_COLOR_1) != 0) { control.setColor(color(color)); }
+        return control;
+    }
+
+    private ExtendedControl readExtendedControl() {
+        int             flags           = buffer.get();
+        String          text            = readString();
+        String          promptText      = readString();
+        int             materialColor   = buffer.getInt();
+        int             promptTextColor = buffer.getInt();
+        ExtendedControl control         = new ExtendedControl(null == text ? "" : text);
+        if (null != promptText)                          { control.setPromptText(promptText); }
+        if ((flags & PanelStateFormat.HAS_COLOR_1) != 0) { control.setMaterialDesignColor(color(materialColor)); }
+        if ((flags & PanelStateFormat.HAS_COLOR_2) != 0) { control.setPromptTextColor(color(promptTextColor)); }
+        return control;
+    }
+
+    private CombinedControl readCombinedControl() {
+        String   quantityName = readString();
+        String   symbol       = readString();
+        double   value        = buffer.getDouble();
+        Quantity quantity     = null == quantityName ? null : UnitRegistry.get(quantityName);
+        if (null == quantity) { quantity = UnitRegistry.TEMPERATURE; }
+        CombinedControl control = new CombinedControl(quantity);
+        Unit            unit    = null == symbol ? null : quantity.getUnit(symbol);
+        if (null != unit && unit != quantity.getBaseUnit()) { control.setUnit(unit); }
+        control.setValue(value);
+        return control;
+    }
+
+    private String readString() {
+        int length = buffer.getShort();
+        if (length < 0) { return null; }
+        if (0 == length) { return ""; }
+        if (scratch.length < length) { scratch = new byte[Math.max(length, scratch.length * 2)]; }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Direct mapped cache, a miss only costs one Color instance
+    private Color color(final int rgba) {
+        int   slot  = (rgba ^ (rgba >>> 8) ^ (rgba >>> 16) ^ (rgba >>> 24)) & (COLOR_CACHE_SIZE - 1);
+        Color color = colors[slot];
+        if (null == color || colorKeys[slot] != rgba) {
+            color           = Color.rgb(rgba >>> 24, (rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, (rgba & 0xFF) / 255.0);
+            colors[slot]    = color;
+            colorKeys[slot] = rgba;
+        }
+        return color;
+    }
+}
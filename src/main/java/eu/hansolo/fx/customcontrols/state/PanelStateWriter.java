@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.state;
+
+import eu.hansolo.fx.customcontrols.canvasbased.CanvasControl;
+import eu.hansolo.fx.customcontrols.combined.CombinedControl;
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.extended.ExtendedControl;
+import eu.hansolo.fx.customcontrols.regionbased.RegionControl;
+import javafx.beans.property.ObjectProperty;
+import javafx.css.StyleOrigin;
+import javafx.css.StyleableProperty;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Writes the state of controls as records of the binary panel state format
+ * through a FileChannel. The number of records is written to the header when
+ * the writer is closed. Colors that come from a stylesheet are not written,
+ * so they will be styled again after restoring.
+ */
+public class PanelStateWriter implements AutoCloseable {
+    private static final int         BUFFER_SIZE = 64 * 1024;
+    private        final FileChannel channel;
+    private              ByteBuffer  buffer;
+    private              int         recordCount;
+
+
+    // ******************** Constructors **************************************
+    public PanelStateWriter(final Path file) throws IOException {
+        if (null != file.getParent()) { Files.createDirectories(file.getParent()); }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer  = ByteBuffer.allocate(BUFFER_SIZE);
+        putHeader(buffer, 0);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Writes the state of all given controls to the given file and returns the
+     * number of written records.
+     */
+    public static int write(final Path file, final Iterable<? extends Node> controls) throws IOException {
+        try (PanelStateWriter writer = new PanelStateWriter(file)) {
+            for (Node control : controls) { writer.write(control); }
+            return writer.getRecordCount();
+        }
+    }
+
+    public void write(final Node control) throws IOException {
+        if (control instanceof CanvasControl) {
+            write((CanvasControl) control);
+        } else if (control instanceof RegionControl) {
+            write((RegionControl) control);
+        } else if (control instanceof CustomControl) {
+            write((CustomControl) control);
+        } else if (control instanceof ExtendedControl) {
+            write((ExtendedControl) control);
+        } else if (control instanceof CombinedControl) {
+            write((CombinedControl) control);
+        } else {
+            throw new IllegalArgumentException("Unsupported control " + (null == control ? null : control.getClass().getName()));
+        }
+    }
+
+    public void write(final CanvasControl control) throws IOException {
+        byte[] text       = encode(control.getText());
+        Color  background = control.getBackgroundColor();
+        Color  foreground = control.getForegroundColor();
+        int    flags      = (control.isActive() ? PanelStateFormat.ACTIVE : 0) | (null == background ? 0 : PanelStateFormat.HAS_COLOR_1) | (null == foreground ? 0 : PanelStateFormat.HAS_COLOR_2);
+        beginRecord(PanelStateFormat.CANVAS, 1 + sizeOf(text) + 8);
+        buffer.put((byte) flags);
+        putString(text);
+        buffer.putInt(rgba(background));
+        buffer.putInt(rgba(foreground));
+    }
+
+    public void write(final RegionControl control) throws IOException {
+        beginRecord(PanelStateFormat.REGION, 2);
+        buffer.put((byte) (control.getState() ? PanelStateFormat.STATE : 0));
+        buffer.put((byte) control.getType().ordinal());
+    }
+
+    public void write(final CustomControl control) throws IOException {
+        Color color = null == control.getColor() ? null : userColor(control.colorProperty());
+        int   flags = (control.getState() ? PanelStateFormat.STATE : 0) | (null == color ? 0 : PanelStateFormat.HAS_COLOR_1);
+        beginRecord(PanelStateFormat.CUSTOM, 6);
+        buffer.put((byte) flags);
+        buffer.put((byte) control.getSkinType().ordinal());
+        buffer.putInt(rgba(color));
+    }
+
+    public void write(final ExtendedControl control) throws IOException {
+        byte[] text            = encode(control.getText());
+        byte[] promptText      = encode(control.getPromptText());
+        Color  materialColor   = userColor(control.materialDesignColorProperty());
+        Color  promptTextColor = userColor(control.promptTextColorProperty());
+        int    flags           = (null == materialColor ? 0 : PanelStateFormat.HAS_COLOR_1) | (null == promptTextColor ? 0 : PanelStateFormat.HAS_COLOR_2);
+        beginRecord(PanelStateFormat.EXTENDED, 1 + sizeOf(text) + sizeOf(promptText) + 8);
+        buffer.put((byte) flags);
+        putString(text);
+        putString(promptText);
+        buffer.putInt(rgba(materialColor));
+        buffer.putInt(rgba(promptTextColor));
+    }
+
+    public void write(final CombinedControl control) throws IOException {
+        byte[] quantity = encode(control.getQuantity().getName());
+        byte[] unit     = encode(control.getUnit().getSymbol());
+        beginRecord(PanelStateFormat.COMBINED, sizeOf(quantity) + sizeOf(unit) + 8);
+        putString(quantity);
+        putString(unit);
+        buffer.putDouble(control.getValue());
+    }
+
+    public int getRecordCount() { return recordCount; }
+
+    @Override public void close() throws IOException {
+        try {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(PanelStateFormat.HEADER_SIZE);
+            putHeader(header, recordCount);
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) { position += channel.write(header, position); }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void beginRecord(final byte kind, final int payloadLength) throws IOException {
+        int size = PanelStateFormat.RECORD_HEADER + payloadLength;
+        if (buffer.remaining() < size) {
+            flush();
+            if (buffer.capacity() < size) { buffer = ByteBuffer.allocate(size); }
+        }
+        buffer.put(kind);
+        buffer.putInt(payloadLength);
+        recordCount++;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) { channel.write(buffer); }
+        buffer.clear();
+    }
+
+    private void putString(final byte[] bytes) {
+        if (null == bytes) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static void putHeader(final ByteBuffer buffer, final int recordCount) {
+        buffer.putInt(PanelStateFormat.MAGIC);
+        buffer.putShort(PanelStateFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(recordCount);
+        buffer.putInt(0);
+    }
+
+    private static byte[] encode(final String text) {
+        if (null == text) { return null; }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > PanelStateFormat.MAX_STRING_BYTES) { throw new IllegalArgumentException("Text too long for panel state (" + bytes.length + " bytes)"); }
+        return bytes;
+    }
+
+    private static int sizeOf(final byte[] bytes) { return 2 + (null == bytes ? 0 : bytes.length); }
+
+    private static int rgba(final Color color) {
+        if (null == color) { return 0; }
+        return (int) Math.round(color.getRed() * 255) << 24 | (int) Math.round(color.getGreen() * 255) << 16 |
+               (int) Math.round(color.getBlue() * 255) << 8 | (int) Math.round(color.getOpacity() * 255);
+    }
+
+    // Only colors that were set in code are part of the state, styled colors come back with the stylesheet
+    @SuppressWarnings("unchecked")
+    private static Color userColor(final ObjectProperty<Color> property) {
+        StyleOrigin origin = ((StyleableProperty<Color>) property).getStyleOrigin();
+        return StyleOrigin.USER == origin ? property.get() : null;
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+
+/**
+ * Runs the action handlers of controls on an executor instead of the FX
+ * application thread, so a slow handler doesn't delay the pressed visual or
+ * freeze the ui. Handlers that want to change the scene graph have to use
+ * Platform.runLater(). Every handler runs at most once at a time, repeated
+ * clicks while it is in flight are handled by the policy:
+ *   QUEUE    runs all clicks one after the other
+ *   COALESCE runs only the latest click once the running one finished
+ *   DROP     ignores clicks while one is in flight
+ * One dispatcher can be shared by many controls, the policy applies per handler
+ * or per key if several handlers share one key. Follow ups, e.g. the release
+ * that belongs to a press, are not subject to the policy, they are always queued
+ * behind the event they belong to and are only discarded together with it.
+ */
+public class ActionDispatcher implements ActionDispatcherMXBean {
+    public enum Policy { QUEUE, COALESCE, DROP }
+
+    private static final AtomicInteger          THREAD_COUNT = new AtomicInteger();
+    private static       ExecutorService        defaultExecutor;
+    private        final String                 name;
+    private        final Executor               executor;
+    private        final Policy                 policy;
+    private        final Map<Object, Slot>      slots;
+    private        final LongAdder              dispatched;
+    private        final LongAdder              completed;
+    private        final LongAdder              coalesced;
+    private        final LongAdder              dropped;
+    private        final LongAdder              failed;
+    private        final LongAdder              latencyNanos;
+    private        final LongAdder              handlerNanos;
+    private        final LongAccumulator        maxLatencyNanos;
+
+
+    // ******************** Constructors **************************************
+    public ActionDispatcher(final Policy policy) {
+        this(getDefaultExecutor(), policy);
+    }
+    public ActionDispatcher(final Executor executor, final Policy policy) {
+        this(null, executor, policy);
+    }
+    /**
+     * Creates a dispatcher that is registered as platform MBean with the name
+     * eu.hansolo.fx.customcontrols:type=ActionDispatcher,name=... if a name is given.
+     */
+    public ActionDispatcher(final String name, final Executor executor, final Policy policy) {
+        if (null == executor) { throw new IllegalArgumentException("Executor cannot be null"); }
+        if (null == policy) { throw new IllegalArgumentException("Policy cannot be null"); }
+        this.name            = null == name ? "" : name;
+        this.executor        = executor;
+        this.policy          = policy;
+        this.slots           = new IdentityHashMap<>();
+        this.dispatched      = new LongAdder();
+        this.completed       = new LongAdder();
+        this.coalesced       = new LongAdder();
+        this.dropped         = new LongAdder();
+        this.failed          = new LongAdder();
+        this.latencyNanos    = new LongAdder();
+        this.handlerNanos    = new LongAdder();
+        this.maxLatencyNanos = new LongAccumulator(Math::max, 0);
+        if (null != name) { register(); }
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns a shared pool of daemon threads that is used if no executor is given.
+     */
+    public static synchronized ExecutorService getDefaultExecutor() {
+        if (null == defaultExecutor) {
+            defaultExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "action-dispatcher-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Hands the event to the given handler on the executor and returns immediately.
+     * Returns false if the event was dropped.
+     */
+    public <T> boolean dispatch(final Consumer<? super T> handler, final T event) { return dispatch(handler, handler, event); }
+    /**
+     * Hands the event to the given handler on the executor and returns immediately.
+     * Handlers that are dispatched with the same key never run concurrently and
+     * the policy applies to all of them. Returns false if the event was dropped.
+     */
+    public <T> boolean dispatch(final Object key, final Consumer<? super T> handler, final T event) {
+        if (null == key || null == handler) { return false; }
+        return dispatch(key, new Task(() -> handler.accept(event), System.nanoTime(), false));
+    }
+
+    /**
+     * Hands a follow up of the last event that was dispatched with the given key
+     * to the handler, e.g. the release of a press. The follow up is always queued
+     * behind that event, even with COALESCE or DROP, and is only discarded if a
+     * later event coalesces the event it belongs to before that one started.
+     * A follow up of a dropped event must not be dispatched.
+     */
+    public <T> void dispatchFollowUp(final Object key, final Consumer<? super T> handler, final T event) {
+        if (null == key || null == handler) { return; }
+        dispatch(key, new Task(() -> handler.accept(event), System.nanoTime(), true));
+    }
+
+    private boolean dispatch(final Object key, final Task task) {
+        final Slot slot;
+        dispatched.increment();
+        synchronized (slots) {
+            Slot running = slots.get(key);
+            if (null != running) {
+                if (task.followUp) {
+                    running.pending.add(task);
+                    return true;
+                }
+                switch(policy) {
+                    case QUEUE    -> running.pending.add(task);
+                    case COALESCE -> {
+                        if (coalesce(running.pending)) { coalesced.increment(); }
+                        running.pending.add(task);
+                    }
+                    case DROP     -> {
+                        dropped.increment();
+                        return false;
+                    }
+                }
+                return true;
+            }
+            slot = new Slot(key);
+            slots.put(key, slot);
+        }
+        try {
+            executor.execute(() -> run(slot, task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            synchronized (slots) {
+                slots.remove(key);
+                dropped.add(1 + slot.pending.size());
+            }
+            return false;
+        }
+    }
+
+    // Removes the pending events that did not start yet together with their follow ups, follow ups of started events are kept
+    private static boolean coalesce(final Deque<Task> pending) {
+        boolean        removed  = false;
+        Iterator<Task> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            if (!task.followUp) { removed = true; }
+            if (removed) { iterator.remove(); }
+        }
+        return removed;
+    }
+
+    public Executor getExecutor() { return executor; }
+
+    @Override public String getName() { return name; }
+
+    @Override public Policy getPolicy() { return policy; }
+
+    @Override public long getDispatchedCount() { return dispatched.sum(); }
+
+    @Override public long getCompletedCount() { return completed.sum(); }
+
+    @Override public long getCoalescedCount() { return coalesced.sum(); }
+
+    @Override public long getDroppedCount() { return dropped.sum(); }
+
+    @Override public long getFailedCount() { return failed.sum(); }
+
+    @Override public int getInFlightCount() {
+        synchronized (slots) { return slots.size(); }
+    }
+
+    @Override public double getAverageLatencyNanos() {
+        long count = completed.sum();
+        return 0 == count ? 0 : latencyNanos.sum() / (double) count;
+    }
+
+    @Override public long getMaxLatencyNanos() { return maxLatencyNanos.get(); }
+
+    @Override public double getAverageHandlerNanos() {
+        long count = completed.sum();
+        return 0 == count ? 0 : handlerNanos.sum() / (double) count;
+    }
+
+    @Override public void reset() {
+        dispatched.reset();
+        completed.reset();
+        coalesced.reset();
+        dropped.reset();
+        failed.reset();
+        latencyNanos.reset();
+        handlerNanos.reset();
+        maxLatencyNanos.reset();
+    }
+
+    @Override public String toString() { return name.isEmpty() ? "ActionDispatcher[" + policy + "]" : name; }
+
+    // Runs the task and all tasks that were queued for the same key meanwhile
+    private void run(final Slot slot, final Task task) {
+        Task current = task;
+        try {
+            while (null != current) {
+                long start = System.nanoTime();
+                try {
+                    current.action.run();
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+                long end = System.nanoTime();
+                completed.increment();
+                handlerNanos.add(end - start);
+                latencyNanos.add(end - current.submitted);
+                maxLatencyNanos.accumulate(end - current.submitted);
+                synchronized (slots) {
+                    current = slot.pending.poll();
+                    if (null == current) { slots.remove(slot.key); }
+                }
+            }
+        } finally {
+            // An Error leaves the loop early, the slot must be freed or the handler would never run again
+            if (null != current) {
+                failed.increment();
+                synchronized (slots) {
+                    slots.remove(slot.key);
+                    dropped.add(slot.pending.size());
+                    slot.pending.clear();
+                }
+            }
+        }
+    }
+
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(RenderStats.DOMAIN + ":type=ActionDispatcher,name=" + ObjectName.quote(name)));
+        } catch (JMException | SecurityException e) {
+            // E.g. a dispatcher with the same name exists already, the metrics are still recorded but not published
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Task {
+        private final Runnable action;
+        private final long     submitted;
+        private final boolean  followUp;
+
+
+        // ******************** Constructors **********************************
+        Task(final Runnable action, final long submitted, final boolean followUp) {
+            this.action    = action;
+            this.submitted = submitted;
+            this.followUp  = followUp;
+        }
+    }
+
+    private static class Slot {
+        private final Object      key;
+        private final Deque<Task> pending;
+
+
+        // ******************** Constructors **********************************
+        Slot(final Object key) {
+            this.key     = key;
+            this.pending = new ArrayDeque<>();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+
+/**
+ * Management interface of an ActionDispatcher. The latency is the time from
+ * the click until the handler finished, times are in nanoseconds.
+ */
+public interface ActionDispatcherMXBean {
+    String getName();
+
+    ActionDispatcher.Policy getPolicy();
+
+    long getDispatchedCount();
+
+    long getCompletedCount();
+
+    long getCoalescedCount();
+
+    long getDroppedCount();
+
+    long getFailedCount();
+
+    int getInFlightCount();
+
+    double getAverageLatencyNanos();
+
+    long getMaxLatencyNanos();
+
+    double getAverageHandlerNanos();
+
+    void reset();
+}
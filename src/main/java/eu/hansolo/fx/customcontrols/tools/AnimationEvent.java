@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Covers the whole lifetime of an animation from start to finish. Because the
+ * event has to be kept until the animation finished, controls should only create
+ * it if isRecording() returns true.
+ */
+@Name("eu.hansolo.fx.customcontrols.Animation")
+@Label("Control Animation")
+@Description("Running animation of a control from start to finish")
+public class AnimationEvent extends ControlEvent {
+    private static final EventType TYPE = EventType.getEventType(AnimationEvent.class);
+
+
+    // ******************** Methods *******************************************
+    public static boolean isRecording() { return TYPE.isEnabled(); }
+}
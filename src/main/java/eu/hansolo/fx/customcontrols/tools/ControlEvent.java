@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.scene.Node;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/**
+ * Base of the JFR events emitted by the controls. All events are disabled by
+ * default and only recorded above a threshold of 1 ms, enable them in a custom
+ * .jfc file or e.g. with jcmd JFR.start settings=... to find the control that
+ * makes a pulse run long. If disabled the JIT removes the event allocation.
+ */
+@Category({ "JavaFX", "Custom Controls" })
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public abstract class ControlEvent extends Event {
+    @Label("Control Type")
+    @Description("Class of the control")
+    public String controlType;
+
+    @Label("Control Id")
+    @Description("Id of the control if set")
+    public String controlId;
+
+    @Label("Cause")
+    @Description("What triggered the work")
+    public String cause;
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Ends the event and commits it with the given control and cause if it
+     * is enabled and took longer than the threshold.
+     */
+    public void commit(final Node control, final String cause) {
+        end();
+        if (!shouldCommit()) { return; }
+        this.controlType = control.getClass().getName();
+        this.controlId   = control.getId();
+        this.cause       = cause;
+        commit();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
+
+/**
+ * Lays out controls in a uniform grid and owns the only set of mouse handlers.
+ * The controls are made mouse transparent and remove their own mouse filters so
+ * that picking stops at the grid and the control under the mouse is resolved by
+ * index from the cell geometry, which keeps the cost per mouse event constant no
+ * matter how many controls are added. Forwarded events are converted into the
+ * local coordinates of the control.
+ */
+public class ControlGrid<T extends Region & InteractiveControl> extends Region {
+    private        final ObservableList<T> controls;
+    private              int               columns;
+    private              double            cellWidth;
+    private              double            cellHeight;
+    private              double            spacing;
+    private              T                 hoveredControl;
+    private              T                 pressedControl;
+
+
+    // ******************** Constructors **************************************
+    public ControlGrid(final int columns, final double cellWidth, final double cellHeight) {
+        this(columns, cellWidth, cellHeight, 0);
+    }
+    public ControlGrid(final int columns, final double cellWidth, final double cellHeight, final double spacing) {
+        if (columns < 1) { throw new IllegalArgumentException("columns must be > 0"); }
+        this.controls   = FXCollections.observableArrayList();
+        this.columns    = columns;
+        this.cellWidth  = cellWidth;
+        this.cellHeight = cellHeight;
+        this.spacing    = spacing;
+
+        getStyleClass().add("control-grid");
+
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void registerListeners() {
+        // Only the changed ranges are applied to the children, resetting all of them would make bulk adds quadratic
+        controls.addListener((ListChangeListener<T>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    getChildren().setAll(controls);
+                    continue;
+                }
+                if (c.wasRemoved()) {
+                    for (T control : c.getRemoved()) {
+                        control.setMouseTransparent(false);
+                        control.setInputDelegated(false);
+                        if (control == hoveredControl) { hoveredControl = null; }
+                        if (control == pressedControl) { pressedControl = null; }
+                    }
+                    getChildren().remove(c.getFrom(), c.getFrom() + c.getRemovedSize());
+                }
+                if (c.wasAdded()) {
+                    for (T control : c.getAddedSubList()) {
+                        control.setMouseTransparent(true);
+                        control.setInputDelegated(true);
+                    }
+                    getChildren().addAll(c.getFrom(), c.getAddedSubList());
+                }
+            }
+        });
+        addEventHandler(MouseEvent.MOUSE_MOVED, e -> updateHovered(getControlAt(e.getX(), e.getY())));
+        // While a button is down the mouse only sends drag events
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, e -> updateHovered(getControlAt(e.getX(), e.getY())));
+        addEventHandler(MouseEvent.MOUSE_EXITED, e -> updateHovered(null));
+        addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            pressedControl = getControlAt(e.getX(), e.getY());
+            if (null == pressedControl) { return; }
+            pressedControl.handlePress(e.copyFor(pressedControl, pressedControl));
+        });
+        addEventHandler(MouseEvent.MOUSE_RELEASED, e -> {
+            if (null == pressedControl) { return; }
+            T control = pressedControl;
+            pressedControl = null;
+            control.handleRelease(e.copyFor(control, control));
+        });
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override protected double computePrefWidth(final double height) {
+        return getInsets().getLeft() + columns * cellWidth + (columns - 1) * spacing + getInsets().getRight();
+    }
+    @Override protected double computePrefHeight(final double width) {
+        int rows = getRows();
+        return getInsets().getTop() + rows * cellHeight + Math.max(0, rows - 1) * spacing + getInsets().getBottom();
+    }
+
+    public ObservableList<T> getControls() { return controls; }
+
+    public int getColumns() { return columns; }
+    public void setColumns(final int columns) {
+        if (columns < 1) { throw new IllegalArgumentException("columns must be > 0"); }
+        this.columns = columns;
+        requestLayout();
+    }
+
+    public double getCellWidth() { return cellWidth; }
+    public void setCellWidth(final double cellWidth) {
+        this.cellWidth = cellWidth;
+        requestLayout();
+    }
+
+    public double getCellHeight() { return cellHeight; }
+    public void setCellHeight(final double cellHeight) {
+        this.cellHeight = cellHeight;
+        requestLayout();
+    }
+
+    public double getSpacing() { return spacing; }
+    public void setSpacing(final double spacing) {
+        this.spacing = spacing;
+        requestLayout();
+    }
+
+    /**
+     * Returns the control whose cell contains the given point in local coordinates
+     * of this grid or null if the point is outside of the cells or in the spacing.
+     */
+    public T getControlAt(final double x, final double y) {
+        final double localX = x - getInsets().getLeft();
+        final double localY = y - getInsets().getTop();
+        if (localX < 0 || localY < 0) { return null; }
+
+        final double stepX = cellWidth + spacing;
+        final double stepY = cellHeight + spacing;
+        final int    col   = (int) (localX / stepX);
+        final int    row   = (int) (localY / stepY);
+        if (col >= columns || localX - col * stepX > cellWidth || localY - row * stepY > cellHeight) { return null; }
+
+        final int index = row * columns + col;
+        return index < controls.size() ? controls.get(index) : null;
+    }
+
+    private int getRows() { return (controls.size() + columns - 1) / columns; }
+
+    private void updateHovered(final T control) {
+        if (control == hoveredControl) { return; }
+        if (null != hoveredControl) { hoveredControl.handleHover(false); }
+        hoveredControl = control;
+        if (null != hoveredControl) { hoveredControl.handleHover(true); }
+    }
+
+
+    // ******************** Layout ********************************************
+    @Override protected void layoutChildren() {
+        final double left  = getInsets().getLeft();
+        final double top   = getInsets().getTop();
+        final double stepX = cellWidth + spacing;
+        final double stepY = cellHeight + spacing;
+        for (int i = 0, n = controls.size(); i < n; i++) {
+            controls.get(i).resizeRelocate(left + (i % columns) * stepX, top + (i / columns) * stepY, cellWidth, cellHeight);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.scene.Node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+
+/**
+ * Bounded pool of controls of one type, e.g. one pool for the leds and one for
+ * the switches of a dashboard. Acquiring reuses a released instance that already
+ * has its skin, only if the pool is empty a new instance will be created by the
+ * factory. Released controls are reset and kept as long as the pool is not full.
+ * The pool is not thread safe and should only be used on the FX application thread.
+ */
+public class ControlPool<T extends Node & Resettable> {
+    private final Supplier<T> factory;
+    private final int         maxSize;
+    private final Deque<T>    pool;
+    private       long        hitCount;
+    private       long        missCount;
+
+
+    // ******************** Constructors **************************************
+    public ControlPool(final Supplier<T> factory, final int maxSize) {
+        if (null == factory) { throw new IllegalArgumentException("Factory cannot be null"); }
+        if (maxSize < 0)     { throw new IllegalArgumentException("Max size cannot be negative"); }
+        this.factory   = factory;
+        this.maxSize   = maxSize;
+        this.pool      = new ArrayDeque<>(Math.min(maxSize, 64));
+        this.hitCount  = 0;
+        this.missCount = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    public T acquire() {
+        T control = pool.pollLast();
+        if (null == control) {
+            missCount++;
+            return factory.get();
+        }
+        hitCount++;
+        return control;
+    }
+
+    /**
+     * Resets the given control and keeps it for the next acquire() call.
+     * The control has to be removed from its parent before it is released.
+     * If the pool is full the control will be dropped.
+     */
+    public void release(final T control) {
+        if (null == control) { return; }
+        if (null != control.getParent()) { throw new IllegalArgumentException("Control must be removed from its parent before it is released"); }
+        control.reset();
+        if (pool.size() < maxSize) { pool.addLast(control); }
+    }
+
+    /**
+     * Creates new instances until the pool contains the given number of controls
+     * or is full, e.g. while the application is idle before a view switch.
+     */
+    public void prefill(final int count) {
+        int target = Math.min(count, maxSize);
+        while (pool.size() < target) { pool.addLast(factory.get()); }
+    }
+
+    public void clear() { pool.clear(); }
+
+    public int getSize() { return pool.size(); }
+
+    public int getMaxSize() { return maxSize; }
+
+    public long getHitCount() { return hitCount; }
+
+    public long getMissCount() { return missCount; }
+
+    public void resetCounts() {
+        hitCount  = 0;
+        missCount = 0;
+    }
+}
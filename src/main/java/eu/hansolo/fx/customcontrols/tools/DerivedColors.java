@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.geometry.Insets;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
+
+
+/**
+ * Immutable table of the colors that are derived from one base color, e.g. the
+ * gradients for the normal, hovered and pressed state of a button, the fills of
+ * a led and a switch and the glow color. The gradients are proportional and
+ * therefore do not depend on the size of the control, the backgrounds can be
+ * shared by all nodes. Tables are kept in a small direct mapped cache, so the
+ * colors of a theme are only computed once while animated or arbitrary colors
+ * can not make the cache grow.
+ */
+public final class DerivedColors {
+    private static final int             CACHE_SIZE = 64;
+    private static final CornerRadii     ROUND      = new CornerRadii(1024);
+    // Entries are immutable, a race between two threads only computes a table twice
+    private static final DerivedColors[] CACHE      = new DerivedColors[CACHE_SIZE];
+    private        final Color           baseColor;
+    private        final Color           hoverColor;
+    private        final Color           glowColor;
+    private        final LinearGradient  fill;
+    private        final LinearGradient  hoverFill;
+    private        final LinearGradient  pressedFill;
+    private        final LinearGradient  hoverPressedFill;
+    private        final Background      ledOffBackground;
+    private        final Background      ledOnBackground;
+    private        final Background      switchOnBackground;
+
+
+    // ******************** Constructors **************************************
+    private DerivedColors(final Color baseColor) {
+        Color bottom      = bottomColor(baseColor);
+        Color hoverTop    = baseColor.brighter();
+        Color hoverBottom = bottomColor(hoverTop).brighter();
+
+        this.baseColor          = baseColor;
+        this.hoverColor         = hoverTop;
+        this.glowColor          = Color.color(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
+        this.fill               = gradient(baseColor, bottom);
+        this.hoverFill          = gradient(hoverTop, hoverBottom);
+        this.pressedFill        = gradient(darker(baseColor), darker(bottom));
+        this.hoverPressedFill   = gradient(darker(hoverTop), darker(hoverBottom));
+        this.ledOffBackground   = ledBackground(Helper.derive(baseColor, -0.80), Helper.derive(baseColor, -0.87), Helper.derive(baseColor, -0.80));
+        this.ledOnBackground    = ledBackground(Helper.derive(baseColor, -0.23), Helper.derive(baseColor, -0.50), baseColor);
+        this.switchOnBackground = new Background(new BackgroundFill(baseColor, ROUND, Insets.EMPTY));
+    }
+
+
+    // ******************** Methods *******************************************
+    public static DerivedColors of(final Color baseColor) {
+        if (null == baseColor) { throw new IllegalArgumentException("Base color cannot be null"); }
+        final int     slot   = baseColor.hashCode() & (CACHE_SIZE - 1);
+        DerivedColors colors = CACHE[slot];
+        if (null == colors || !colors.baseColor.equals(baseColor)) {
+            colors      = new DerivedColors(baseColor);
+            CACHE[slot] = colors;
+        }
+        return colors;
+    }
+
+    public Color getBaseColor() { return baseColor; }
+
+    public Color getHoverColor() { return hoverColor; }
+
+    /**
+     * Returns the opaque base color, a glow has its own opacity.
+     */
+    public Color getGlowColor() { return glowColor; }
+
+    public Background getLedBackground(final boolean on) { return on ? ledOnBackground : ledOffBackground; }
+
+    public Background getSwitchOnBackground() { return switchOnBackground; }
+
+    public LinearGradient getFill(final boolean hovered, final boolean pressed) {
+        if (hovered) { return pressed ? hoverPressedFill : hoverFill; }
+        return pressed ? pressedFill : fill;
+    }
+
+    private static Color bottomColor(final Color top) { return Color.hsb(top.getHue(), top.getSaturation(), Helper.clamp(0, 1, top.getBrightness() * 1.5)); }
+
+    private static Color darker(final Color color) { return Color.hsb(color.getHue(), color.getSaturation(), color.getBrightness() * 0.7); }
+
+    private static Background ledBackground(final Color start, final Color center, final Color end) {
+        LinearGradient gradient = new LinearGradient(0.15, 0.15, 0.83, 0.83, true, CycleMethod.NO_CYCLE,
+                                                     new Stop(0.0, start), new Stop(0.49, center), new Stop(1.0, end));
+        return new Background(new BackgroundFill(gradient, ROUND, Insets.EMPTY));
+    }
+
+    private static LinearGradient gradient(final Color top, final Color bottom) {
+        return new LinearGradient(0, 0, 0, 1.0, true, CycleMethod.NO_CYCLE, new Stop(0.0, top), new Stop(1.0, bottom));
+    }
+}
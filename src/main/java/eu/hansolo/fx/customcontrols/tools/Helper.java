@@ -16,7 +16,25 @@
 
 package eu.hansolo.fx.customcontrols.tools;
 
+import javafx.scene.paint.Color;
+
+import java.net.URL;
+
+
 public class Helper {
+    /**
+     * Returns the external form of the precompiled binary stylesheet (.bss) next
+     * to the given css file if it exists and the css file itself otherwise.
+     */
+    public static final String getStylesheet(final Class<?> type, final String cssFileName) {
+        final int    extension   = cssFileName.lastIndexOf('.');
+        final String bssFileName = (extension < 0 ? cssFileName : cssFileName.substring(0, extension)) + ".bss";
+        URL url = type.getResource(bssFileName);
+        if (null == url) { url = type.getResource(cssFileName); }
+        if (null == url) { throw new IllegalArgumentException("Stylesheet " + cssFileName + " not found for " + type.getName()); }
+        return url.toExternalForm();
+    }
+
     public static final double clamp(final double min, final double max, final double value) {
         if (value < min) { return min; }
         if (value > max) { return max; }
@@ -28,4 +46,45 @@ public class Helper {
         if (value > max) { return max; }
         return value;
     }
+
+    /**
+     * Returns the given color with the brightness changed like the css function
+     * derive(color, brightness) does, brightness ranges from -1 to 1.
+     */
+    public static final Color derive(final Color color, final double brightness) {
+        final double red            = color.getRed();
+        final double green          = color.getGreen();
+        final double blue           = color.getBlue();
+        final double baseBrightness = Math.sqrt(red * red * 0.241 + green * green * 0.691 + blue * blue * 0.068);
+        double       factor         = brightness;
+        // Same contrast adjustments for the ranges of the base brightness as in css
+        if (factor > 0) {
+            if (baseBrightness > 0.85) {
+                factor *= 1.6;
+            } else if (baseBrightness > 0.6) {
+                // unchanged
+            } else if (baseBrightness > 0.5) {
+                factor *= 0.9;
+            } else if (baseBrightness > 0.4) {
+                factor *= 0.8;
+            } else if (baseBrightness > 0.3) {
+                factor *= 0.7;
+            } else {
+                factor *= 0.6;
+            }
+        } else if (baseBrightness < 0.2) {
+            factor *= 0.6;
+        }
+        factor = clamp(-1, 1, factor);
+
+        double saturation = color.getSaturation();
+        double value      = color.getBrightness();
+        if (factor > 0) {
+            saturation *= 1 - factor;
+            value      += (1 - value) * factor;
+        } else {
+            value *= factor + 1;
+        }
+        return Color.hsb(color.getHue(), clamp(0, 1, saturation), clamp(0, 1, value), color.getOpacity());
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import eu.hansolo.fx.customcontrols.tools.InputRecording.Entry;
+import eu.hansolo.fx.customcontrols.tools.InputRecording.Type;
+import javafx.beans.value.ChangeListener;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Records the input event stream of a scene, i.e. mouse moves, drags, the mouse
+ * entering and exiting the scene, mouse presses and releases, key presses and
+ * releases and focus changes. Entering and exiting of the nodes in the scene is
+ * reproduced by replaying the recorded mouse moves.
+ *
+ * Start a demo with -Deu.hansolo.fx.customcontrols.record=recording.fxir to
+ * write a recording of the session when its window is closed.
+ */
+public class InputRecorder {
+    private static final System.Logger            LOGGER          = System.getLogger(InputRecorder.class.getName());
+    public  static final String                   RECORD_PROPERTY = "eu.hansolo.fx.customcontrols.record";
+    private        final Scene                    scene;
+    private        final String                   source;
+    private        final List<Entry>              entries;
+    private        final EventHandler<MouseEvent> mouseFilter;
+    private        final EventHandler<KeyEvent>   keyFilter;
+    private        final ChangeListener<Node>     focusListener;
+    private              long                     startNanos;
+    private              boolean                  recording;
+
+
+    // ******************** Constructors **************************************
+    public InputRecorder(final Scene scene, final String source) {
+        if (null == scene) { throw new IllegalArgumentException("Scene cannot be null"); }
+        this.scene         = scene;
+        this.source        = source;
+        this.entries       = new ArrayList<>();
+        this.mouseFilter   = this::handleMouseEvent;
+        this.keyFilter     = this::handleKeyEvent;
+        this.focusListener = (o, ov, nv) -> { if (null != nv) { entries.add(Entry.focus(time(), InputRecording.pathOf(nv))); } };
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Starts recording the scene if the record system property is set and writes
+     * the recording to the given file when the window of the scene is hidden.
+     */
+    public static void recordIfRequested(final Scene scene, final String source) {
+        String file = System.getProperty(RECORD_PROPERTY);
+        if (null == file || file.isBlank()) { return; }
+        Path          path     = Paths.get(file);
+        InputRecorder recorder = new InputRecorder(scene, source);
+        recorder.start();
+        ChangeListener<Window> windowListener = (o, ov, nv) -> {
+            if (null == nv) { return; }
+            nv.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+                if (!recorder.isRecording()) { return; }
+                recorder.stop();
+                try {
+                    recorder.getRecording().write(path);
+                    LOGGER.log(System.Logger.Level.INFO, "Input recording written to " + path.toAbsolutePath());
+                } catch (IOException ex) {
+                    // Throwing here would only end up in the handler of the closing window
+                    LOGGER.log(System.Logger.Level.ERROR, "Input recording could not be written to " + path.toAbsolutePath(), ex);
+                }
+            });
+        };
+        scene.windowProperty().addListener(windowListener);
+        windowListener.changed(scene.windowProperty(), null, scene.getWindow());
+    }
+
+    public void start() {
+        if (recording) { return; }
+        entries.clear();
+        startNanos = System.nanoTime();
+        scene.addEventFilter(MouseEvent.ANY, mouseFilter);
+        scene.addEventFilter(KeyEvent.ANY, keyFilter);
+        scene.focusOwnerProperty().addListener(focusListener);
+        recording = true;
+    }
+
+    public void stop() {
+        if (!recording) { return; }
+        scene.removeEventFilter(MouseEvent.ANY, mouseFilter);
+        scene.removeEventFilter(KeyEvent.ANY, keyFilter);
+        scene.focusOwnerProperty().removeListener(focusListener);
+        recording = false;
+    }
+
+    public boolean isRecording() { return recording; }
+
+    public int getEntryCount() { return entries.size(); }
+
+    public InputRecording getRecording() { return new InputRecording(source, scene.getWidth(), scene.getHeight(), entries); }
+
+    private void handleMouseEvent(final MouseEvent event) {
+        // MOUSE_ENTERED and MOUSE_EXITED only reach the scene filter if the scene itself is the target
+        EventType<? extends MouseEvent> type = event.getEventType();
+        if (MouseEvent.MOUSE_MOVED == type || MouseEvent.MOUSE_DRAGGED == type) {
+            entries.add(Entry.mouse(Type.MOVE, time(), event.getSceneX(), event.getSceneY(), null));
+        } else if (MouseEvent.MOUSE_ENTERED == type) {
+            entries.add(Entry.mouse(Type.ENTER, time(), event.getSceneX(), event.getSceneY(), null));
+        } else if (MouseEvent.MOUSE_EXITED == type) {
+            entries.add(Entry.mouse(Type.EXIT, time(), event.getSceneX(), event.getSceneY(), null));
+        } else if (MouseEvent.MOUSE_PRESSED == type) {
+            entries.add(Entry.mouse(Type.PRESS, time(), event.getSceneX(), event.getSceneY(), event.getButton()));
+        } else if (MouseEvent.MOUSE_RELEASED == type) {
+            entries.add(Entry.mouse(Type.RELEASE, time(), event.getSceneX(), event.getSceneY(), event.getButton()));
+        }
+    }
+
+    private void handleKeyEvent(final KeyEvent event) {
+        // KEY_TYPED is not recorded, it will be created again from the replayed key presses
+        if (KeyEvent.KEY_PRESSED == event.getEventType()) {
+            entries.add(Entry.key(Type.KEY_PRESS, time(), event.getCode()));
+        } else if (KeyEvent.KEY_RELEASED == event.getEventType()) {
+            entries.add(Entry.key(Type.KEY_RELEASE, time(), event.getCode()));
+        }
+    }
+
+    private long time() { return System.nanoTime() - startNanos; }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Immutable stream of recorded input events of one scene. The binary format
+ * starts with a header (magic, version, source, scene width and height, number
+ * of entries) followed by the entries. Every entry is written as its type, the
+ * time since the previous entry in microseconds as var int and the type specific
+ * payload, which keeps a recording of a few minutes well below one megabyte.
+ */
+public final class InputRecording {
+    public  static final int         MAGIC           = 0x46584952; // FXIR
+    public  static final int         VERSION         = 1;
+    // Sizes are read from the file, a corrupt one must not allocate huge arrays
+    private static final int         MAX_PATH_LENGTH = 1_024;
+    private static final int         MAX_CAPACITY    = 65_536;
+    private        final String      source;
+    private        final double      width;
+    private        final double      height;
+    private        final List<Entry> entries;
+
+    // The ordinal is part of the file format, only append new types
+    public enum Type { MOVE, ENTER, EXIT, PRESS, RELEASE, KEY_PRESS, KEY_RELEASE, FOCUS }
+
+
+    // ******************** Constructors **************************************
+    public InputRecording(final String source, final double width, final double height, final List<Entry> entries) {
+        this.source  = null == source ? "" : source;
+        this.width   = width;
+        this.height  = height;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the name of the recorded application class, e.g. the demo class.
+     */
+    public String getSource() { return source; }
+
+    public double getWidth() { return width; }
+
+    public double getHeight() { return height; }
+
+    public List<Entry> getEntries() { return entries; }
+
+    public long getDurationNanos() { return entries.isEmpty() ? 0 : entries.get(entries.size() - 1).getTimeNanos(); }
+
+    public void write(final Path path) throws IOException {
+        if (null != path.getParent()) { Files.createDirectories(path.getParent()); }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(source);
+            out.writeFloat((float) width);
+            out.writeFloat((float) height);
+            writeVarInt(out, entries.size());
+            long lastMicros = 0;
+            for (Entry entry : entries) {
+                long micros = entry.getTimeNanos() / 1_000;
+                out.writeByte(entry.getType().ordinal());
+                writeVarInt(out, micros - lastMicros);
+                lastMicros = micros;
+                switch(entry.getType()) {
+                    case MOVE, ENTER, EXIT -> {
+                        out.writeFloat((float) entry.getX());
+                        out.writeFloat((float) entry.getY());
+                    }
+                    case PRESS, RELEASE -> {
+                        out.writeFloat((float) entry.getX());
+                        out.writeFloat((float) entry.getY());
+                        out.writeByte(entry.getButton().ordinal());
+                    }
+                    case KEY_PRESS, KEY_RELEASE -> out.writeUTF(entry.getKeyCode().name());
+                    case FOCUS -> {
+                        int[] focusPath = entry.getPath();
+                        writeVarInt(out, focusPath.length);
+                        for (int index : focusPath) { writeVarInt(out, index); }
+                    }
+                }
+            }
+        }
+    }
+
+    public static InputRecording read(final Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) { throw new IOException("Not an input recording: " + path); }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) { throw new IOException("Unsupported input recording version " + version); }
+            String        source  = in.readUTF();
+            double        width   = in.readFloat();
+            double        height  = in.readFloat();
+            int           count   = readSize(in, Integer.MAX_VALUE, "entry count");
+            Type[]        types   = Type.values();
+            MouseButton[] buttons = MouseButton.values();
+            List<Entry>   entries = new ArrayList<>(Math.min(count, MAX_CAPACITY));
+            long          micros  = 0;
+            for (int i = 0; i < count; i++) {
+                int typeIndex = in.readUnsignedByte();
+                if (typeIndex >= types.length) { throw new IOException("Unknown entry type " + typeIndex); }
+                Type type = types[typeIndex];
+                micros += readVarInt(in);
+                long nanos = micros * 1_000;
+                switch(type) {
+                    case MOVE, ENTER, EXIT      -> entries.add(Entry.mouse(type, nanos, in.readFloat(), in.readFloat(), MouseButton.NONE));
+                    case PRESS, RELEASE         -> {
+                        double x           = in.readFloat();
+                        double y           = in.readFloat();
+                        int    buttonIndex = in.readUnsignedByte();
+                        if (buttonIndex >= buttons.length) { throw new IOException("Unknown mouse button " + buttonIndex); }
+                        entries.add(Entry.mouse(type, nanos, x, y, buttons[buttonIndex]));
+                    }
+                    case KEY_PRESS, KEY_RELEASE -> entries.add(Entry.key(type, nanos, readKeyCode(in)));
+                    case FOCUS                  -> {
+                        int[] focusPath = new int[readSize(in, MAX_PATH_LENGTH, "focus path length")];
+                        for (int j = 0; j < focusPath.length; j++) { focusPath[j] = readSize(in, Integer.MAX_VALUE, "child index"); }
+                        entries.add(Entry.focus(nanos, focusPath));
+                    }
+                }
+            }
+            return new InputRecording(source, width, height, entries);
+        }
+    }
+
+    /**
+     * Returns the child indices from the root of the scene down to the given node.
+     */
+    public static int[] pathOf(final Node node) {
+        List<Integer> indices = new ArrayList<>();
+        Node          current = node;
+        while (null != current.getParent()) {
+            Parent parent = current.getParent();
+            indices.add(parent.getChildrenUnmodifiable().indexOf(current));
+            current = parent;
+        }
+        int[] path = new int[indices.size()];
+        for (int i = 0; i < path.length; i++) { path[i] = indices.get(path.length - 1 - i); }
+        return path;
+    }
+
+    /**
+     * Returns the node at the given path in the given scene or null if the scene
+     * graph differs from the recorded one.
+     */
+    public static Node resolve(final Scene scene, final int[] path) {
+        Node node = scene.getRoot();
+        for (int index : path) {
+            if (!(node instanceof Parent)) { return null; }
+            List<Node> children = ((Parent) node).getChildrenUnmodifiable();
+            if (index < 0 || index >= children.size()) { return null; }
+            node = children.get(index);
+        }
+        return node;
+    }
+
+    private static void writeVarInt(final DataOutputStream out, final long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static int readSize(final DataInputStream in, final int max, final String name) throws IOException {
+        long value = readVarInt(in);
+        if (value < 0 || value > max) { throw new IOException("Invalid " + name + " " + value); }
+        return (int) value;
+    }
+
+    private static KeyCode readKeyCode(final DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        try {
+            return KeyCode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown key code " + name, e);
+        }
+    }
+
+    private static long readVarInt(final DataInputStream in) throws IOException {
+        long value = 0;
+        int  shift = 0;
+        int  b;
+        do {
+            if (shift > 63) { throw new IOException("Malformed var int"); }
+            b      = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    public static final class Entry {
+        private final Type        type;
+        private final long        timeNanos;
+        private final double      x;
+        private final double      y;
+        private final MouseButton button;
+        private final KeyCode     keyCode;
+        private final int[]       path;
+
+
+        // ******************** Constructors **********************************
+        private Entry(final Type type, final long timeNanos, final double x, final double y, final MouseButton button, final KeyCode keyCode, final int[] path) {
+            this.type      = type;
+            this.timeNanos = timeNanos;
+            this.x         = x;
+            this.y         = y;
+            this.button    = button;
+            this.keyCode   = keyCode;
+            this.path      = path;
+        }
+
+
+        // ******************** Methods ***************************************
+        public static Entry mouse(final Type type, final long timeNanos, final double sceneX, final double sceneY, final MouseButton button) {
+            return new Entry(type, timeNanos, sceneX, sceneY, null == button ? MouseButton.NONE : button, null, null);
+        }
+
+        public static Entry key(final Type type, final long timeNanos, final KeyCode keyCode) {
+            return new Entry(type, timeNanos, 0, 0, MouseButton.NONE, keyCode, null);
+        }
+
+        public static Entry focus(final long timeNanos, final int[] path) {
+            return new Entry(Type.FOCUS, timeNanos, 0, 0, MouseButton.NONE, null, path.clone());
+        }
+
+        public Type getType() { return type; }
+
+        /**
+         * Returns the time since the start of the recording in nanoseconds.
+         */
+        public long getTimeNanos() { return timeNanos; }
+
+        public double getX() { return x; }
+
+        public double getY() { return y; }
+
+        public MouseButton getButton() { return button; }
+
+        public KeyCode getKeyCode() { return keyCode; }
+
+        public int[] getPath() { return null == path ? null : path.clone(); }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.scene.input.MouseEvent;
+
+
+/**
+ * Implemented by controls that can receive hover, press and release
+ * from a container like the ControlGrid instead of their own event filters.
+ */
+public interface InteractiveControl {
+    /**
+     * A delegated control removes its own mouse filters because a container
+     * forwards the mouse events to it.
+     */
+    void setInputDelegated(boolean delegated);
+
+    void handleHover(boolean hovered);
+
+    void handlePress(MouseEvent event);
+
+    void handleRelease(MouseEvent event);
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+/**
+ * Hand written scanner, parser and fixed point formatter for plain decimal numbers
+ * that neither compiles regular expressions nor creates intermediate objects.
+ */
+public class Numeric {
+    private static final int      MAX_DECIMALS     = 9;
+    private static final long     MAX_EXACT_LONG   = 1L << 53;
+    private static final double[] POWERS_OF_TEN    = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                                       1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final long[]   LONG_POWERS      = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L };
+
+
+    private Numeric() {}
+
+
+    /**
+     * Returns true if the given text only contains digits with at most one decimal
+     * point, which is the same as matching [0-9]*(\.[0-9]*)? but without a regex.
+     */
+    public static boolean isDecimalInput(final CharSequence text) {
+        if (null == text) { return false; }
+        boolean point = false;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            final char c = text.charAt(i);
+            if (c == '.') {
+                if (point) { return false; }
+                point = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the given text is a number with an optional sign and an optional
+     * fraction, which is the same as matching ^[-+]?\d+(\.\d+)?$ but without a regex.
+     */
+    public static boolean isNumber(final CharSequence text) {
+        if (null == text) { return false; }
+        final int length = text.length();
+        int       i      = 0;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) { i++; }
+        final int integerStart = i;
+        while (i < length && isDigit(text.charAt(i))) { i++; }
+        if (i == integerStart) { return false; }
+        if (i == length) { return true; }
+        if (text.charAt(i) != '.') { return false; }
+        final int fractionStart = ++i;
+        while (i < length && isDigit(text.charAt(i))) { i++; }
+        return i == length && i > fractionStart;
+    }
+
+    /**
+     * Parses a number that passed isNumber(). Up to 15 significant digits the result is
+     * computed from an exact long mantissa and a single division by an exact power of ten,
+     * which gives the correctly rounded double. Longer input falls back to Double.parseDouble().
+     */
+    public static double parse(final CharSequence text) {
+        if (!isNumber(text)) { throw new NumberFormatException("Not a number: " + text); }
+        final int length   = text.length();
+        int       i        = 0;
+        boolean   negative = false;
+        if (text.charAt(0) == '-' || text.charAt(0) == '+') {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long mantissa       = 0;
+        int  fractionDigits = 0;
+        boolean fraction    = false;
+        for (; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (mantissa >= MAX_EXACT_LONG) { return Double.parseDouble(text.toString()); }
+            if (fraction) { fractionDigits++; }
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) { return Double.parseDouble(text.toString()); }
+        final double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Appends the given value with the given number of decimals (0 - 9) to the given
+     * StringBuilder using half up rounding and a '.' as decimal separator.
+     */
+    public static StringBuilder format(final double value, final int decimals, final StringBuilder sb) {
+        final int    d      = (int) Helper.clamp(0, MAX_DECIMALS, decimals);
+        final double scaled = Math.abs(value) * POWERS_OF_TEN[d];
+        if (Double.isNaN(value) || Double.isInfinite(value) || scaled >= Long.MAX_VALUE) {
+            return sb.append(value);
+        }
+        final long rounded = (long) (scaled + 0.5);
+        if (value < 0 && rounded != 0) { sb.append('-'); }
+        sb.append(rounded / LONG_POWERS[d]);
+        if (d > 0) {
+            sb.append('.');
+            final long fraction = rounded % LONG_POWERS[d];
+            for (int i = d - 1; i > 0 && fraction < LONG_POWERS[i]; i--) { sb.append('0'); }
+            sb.append(fraction);
+        }
+        return sb;
+    }
+
+    private static boolean isDigit(final char c) { return c >= '0' && c <= '9'; }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+
+/**
+ * Minimal PNG encoder for 8 bit RGBA images. The rows are filtered with the
+ * sub filter, deflated in a streaming fashion and written as IDAT chunks of
+ * at most 64 kB directly to the given channel. Instances are stateless except
+ * for the compression level and can be shared between threads.
+ */
+public final class PngEncoder {
+    private static final byte[] SIGNATURE  = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] IHDR       = "IHDR".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IDAT       = "IDAT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IEND       = "IEND".getBytes(StandardCharsets.US_ASCII);
+    private static final int    CHUNK_SIZE = 64 * 1024;
+    private static final byte   FILTER_SUB = 1;
+    private        final int    level;
+
+
+    // ******************** Constructors **************************************
+    public PngEncoder() {
+        this(Deflater.BEST_SPEED);
+    }
+    public PngEncoder(final int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) { throw new IllegalArgumentException("Level must be between 1 and 9"); }
+        this.level = level;
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getLevel() { return level; }
+
+    /**
+     * Encodes the given non premultiplied ARGB pixels, one int per pixel and
+     * width ints per row starting at position 0, and writes the PNG to the channel.
+     */
+    public void encode(final IntBuffer pixels, final int width, final int height, final WritableByteChannel channel) throws IOException {
+        if (width <= 0 || height <= 0) { throw new IllegalArgumentException("Width and height must be greater than 0"); }
+        if (pixels.limit() < width * height) { throw new IllegalArgumentException("Pixel buffer too small"); }
+
+        CRC32      crc = new CRC32();
+        ByteBuffer out = ByteBuffer.allocate(CHUNK_SIZE + 12);
+
+        out.put(SIGNATURE);
+        out.flip();
+        writeFully(out, channel);
+
+        ByteBuffer header = ByteBuffer.allocate(13);
+        header.putInt(width).putInt(height);
+        header.put((byte) 8);  // bit depth
+        header.put((byte) 6);  // color type RGBA
+        header.put((byte) 0);  // compression
+        header.put((byte) 0);  // filter
+        header.put((byte) 0);  // interlace
+        writeChunk(IHDR, header.array(), header.position(), out, crc, channel);
+
+        Deflater deflater = new Deflater(level);
+        try {
+            int    stride   = width * 4;
+            byte[] row      = new byte[stride + 1];
+            byte[] deflated = new byte[CHUNK_SIZE];
+            int    filled   = 0;
+            row[0] = FILTER_SUB;
+            for (int y = 0; y < height; y++) {
+                int offset = y * width;
+                int prev   = 0;
+                for (int x = 0; x < width; x++) {
+                    int argb = pixels.get(offset + x);
+                    int i    = 1 + x * 4;
+                    row[i]     = (byte) ((argb >>> 16) - (prev >>> 16));
+                    row[i + 1] = (byte) ((argb >>> 8)  - (prev >>> 8));
+                    row[i + 2] = (byte) (argb          - prev);
+                    row[i + 3] = (byte) ((argb >>> 24) - (prev >>> 24));
+                    prev = argb;
+                }
+                deflater.setInput(row);
+                while (!deflater.needsInput()) {
+                    filled += deflater.deflate(deflated, filled, deflated.length - filled);
+                    if (filled == deflated.length) {
+                        writeChunk(IDAT, deflated, filled, out, crc, channel);
+                        filled = 0;
+                    }
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                filled += deflater.deflate(deflated, filled, deflated.length - filled);
+                if (filled == deflated.length) {
+                    writeChunk(IDAT, deflated, filled, out, crc, channel);
+                    filled = 0;
+                }
+            }
+            if (filled > 0) { writeChunk(IDAT, deflated, filled, out, crc, channel); }
+        } finally {
+            deflater.end();
+        }
+        writeChunk(IEND, new byte[0], 0, out, crc, channel);
+    }
+
+    private static void writeChunk(final byte[] type, final byte[] data, final int length, final ByteBuffer out, final CRC32 crc, final WritableByteChannel channel) throws IOException {
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        out.clear();
+        out.putInt(length);
+        out.put(type);
+        out.put(data, 0, length);
+        out.putInt((int) crc.getValue());
+        out.flip();
+        writeFully(out, channel);
+    }
+
+    private static void writeFully(final ByteBuffer buffer, final WritableByteChannel channel) throws IOException {
+        while (buffer.hasRemaining()) { channel.write(buffer); }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+
+/**
+ * Implemented by controls and skins that can trade rendering quality for speed.
+ * The QualityManager calls the hook on the FX application thread whenever the
+ * quality level changes, an implementation should only switch the affected
+ * effects and animations without recreating its scene graph.
+ */
+public interface QualityAware {
+    void applyQuality(QualityLevel level);
+}
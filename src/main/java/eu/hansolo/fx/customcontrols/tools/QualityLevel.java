@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.scene.effect.BlurType;
+
+
+/**
+ * Rendering quality levels from the best to the cheapest one. Every level keeps
+ * the degradations of the levels above it, i.e. a cheaper blur, fewer particles,
+ * no glow and finally no transitions.
+ */
+public enum QualityLevel {
+    HIGH(BlurType.TWO_PASS_BOX, 1.0, true, true),
+    CHEAP_BLUR(BlurType.ONE_PASS_BOX, 1.0, true, true),
+    FEW_PARTICLES(BlurType.ONE_PASS_BOX, 0.33, true, true),
+    NO_GLOW(BlurType.ONE_PASS_BOX, 0.33, false, true),
+    NO_TRANSITIONS(BlurType.ONE_PASS_BOX, 0.33, false, false);
+
+    private final BlurType blurType;
+    private final double   particleFactor;
+    private final boolean  glowEnabled;
+    private final boolean  transitionsEnabled;
+
+
+    // ******************** Constructors **************************************
+    QualityLevel(final BlurType blurType, final double particleFactor, final boolean glowEnabled, final boolean transitionsEnabled) {
+        this.blurType           = blurType;
+        this.particleFactor     = particleFactor;
+        this.glowEnabled        = glowEnabled;
+        this.transitionsEnabled = transitionsEnabled;
+    }
+
+
+    // ******************** Methods *******************************************
+    public BlurType getBlurType() { return blurType; }
+
+    /**
+     * Returns the number of particles out of the given maximum that should be drawn.
+     */
+    public int getParticleCount(final int maxParticles) { return Math.min(maxParticles, Math.max(1, (int) Math.round(maxParticles * particleFactor))); }
+
+    public boolean isGlowEnabled() { return glowEnabled; }
+
+    public boolean isTransitionsEnabled() { return transitionsEnabled; }
+
+    public QualityLevel lower() { return ordinal() == values().length - 1 ? this : values()[ordinal() + 1]; }
+
+    public QualityLevel higher() { return ordinal() == 0 ? this : values()[ordinal() - 1]; }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.ConditionalFeature;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+
+/**
+ * Watches the time between two pulses while controls animate or redraw and
+ * steps the quality level of all registered controls down if the frame budget
+ * is exceeded and up again once there is enough headroom. Stepping down happens
+ * after one window of frames, stepping up only after several good windows in a
+ * row and this number doubles every time a restored level had to be dropped
+ * again, so the quality doesn't flicker between two levels. The monitor stops
+ * after a window without animations and redraws, so an idle ui is not kept
+ * pulsing.
+ *
+ * The software pipeline (prism.order=sw) starts with a cheaper blur. Use
+ * -Deu.hansolo.fx.customcontrols.quality=HIGH (or any other level) to pin the
+ * quality level and switch off the adaptation, an unknown level is logged and
+ * the adaptation stays on.
+ */
+public class QualityManager {
+    private static final    System.Logger                       LOGGER               = System.getLogger(QualityManager.class.getName());
+    public  static final    String                              QUALITY_PROPERTY     = "eu.hansolo.fx.customcontrols.quality";
+    private static final    int                                 WINDOW               = 30;
+    private static final    int                                 MIN_RESTORE_WINDOWS  = 4;
+    private static final    int                                 MAX_RESTORE_WINDOWS  = 64;
+    private static final    double                              DEGRADE_FACTOR       = 1.25;
+    private static final    double                              RESTORE_FACTOR       = 1.1;
+    private static volatile QualityManager                      instance;
+    private        final    Set<QualityAware>                   controls;
+    private        final    boolean                             softwarePipeline;
+    private        final    ReadOnlyObjectWrapper<QualityLevel> qualityLevel;
+    private        final    AnimationTimer                      monitor;
+    private                 boolean                             adaptive;
+    private                 boolean                             monitoring;
+    private                 boolean                             redrawn;
+    private                 int                                 activeAnimations;
+    private                 double                              frameBudgetMillis;
+    private                 long                                lastPulse;
+    private                 long                                windowNanos;
+    private                 int                                 frames;
+    private                 int                                 cooldown;
+    private                 int                                 goodWindows;
+    private                 int                                 restoreWindows;
+    private                 int                                 windowsSinceRestore;
+
+
+    // ******************** Constructors **************************************
+    public QualityManager() {
+        this(isSoftwarePipelineActive(), System.getProperty(QUALITY_PROPERTY));
+    }
+    public QualityManager(final boolean softwarePipeline, final String pinnedLevel) {
+        QualityLevel pinned = parseLevel(pinnedLevel);
+        this.controls            = Collections.newSetFromMap(new WeakHashMap<>());
+        this.softwarePipeline    = softwarePipeline;
+        this.adaptive            = null == pinned;
+        this.frameBudgetMillis   = 1000.0 / 60.0;
+        this.restoreWindows      = MIN_RESTORE_WINDOWS;
+        this.windowsSinceRestore = Integer.MAX_VALUE;
+        this.qualityLevel        = new ReadOnlyObjectWrapper<>(this, "qualityLevel", null != pinned ? pinned : softwarePipeline ? QualityLevel.CHEAP_BLUR : QualityLevel.HIGH) {
+            @Override protected void invalidated() { applyQuality(get()); }
+        };
+        this.monitor             = new AnimationTimer() {
+            @Override public void handle(final long now) { handlePulse(now); }
+        };
+    }
+
+
+    // ******************** Methods *******************************************
+    public static synchronized QualityManager getInstance() {
+        if (null == instance) { instance = new QualityManager(); }
+        return instance;
+    }
+
+    /**
+     * Returns true if the first pipeline in prism.order is the software pipeline
+     * or if there is no 3D support, which is the case for the software pipeline
+     * and very weak hardware.
+     */
+    public static boolean isSoftwarePipelineActive() {
+        String order = System.getProperty("prism.order");
+        if (null != order && order.trim().startsWith("sw")) { return true; }
+        return !Platform.isSupported(ConditionalFeature.SCENE3D);
+    }
+
+    public boolean isSoftwarePipeline() { return softwarePipeline; }
+
+    public QualityLevel getQualityLevel() { return qualityLevel.get(); }
+    /**
+     * Sets the quality level, with adaptation switched on it is only the
+     * starting point for the next adjustments.
+     */
+    public void setQualityLevel(final QualityLevel level) {
+        if (null == level) { throw new IllegalArgumentException("Level cannot be null"); }
+        if (Platform.isFxApplicationThread()) {
+            qualityLevel.set(level);
+        } else {
+            Platform.runLater(() -> qualityLevel.set(level));
+        }
+    }
+    public ReadOnlyObjectProperty<QualityLevel> qualityLevelProperty() { return qualityLevel.getReadOnlyProperty(); }
+
+    public boolean isAdaptive() { return adaptive; }
+    public void setAdaptive(final boolean adaptive) {
+        this.adaptive = adaptive;
+        updateMonitor();
+    }
+
+    public double getFrameBudgetMillis() { return frameBudgetMillis; }
+    public void setFrameBudgetMillis(final double frameBudgetMillis) {
+        if (frameBudgetMillis <= 0) { throw new IllegalArgumentException("Frame budget must be greater than 0"); }
+        this.frameBudgetMillis = frameBudgetMillis;
+    }
+
+    /**
+     * Registers the given control, applies the current quality level to it and
+     * starts watching the pulses. Controls are only weakly referenced.
+     */
+    public void register(final QualityAware control) {
+        if (null == control) { return; }
+        controls.add(control);
+        control.applyQuality(getQualityLevel());
+        updateMonitor();
+    }
+
+    public void unregister(final QualityAware control) { controls.remove(control); }
+
+    public int getRegisteredCount() { return controls.size(); }
+
+    private void applyQuality(final QualityLevel level) {
+        // Copy first, applying a level could register or unregister controls
+        List<QualityAware> snapshot = new ArrayList<>(controls);
+        for (QualityAware control : snapshot) { control.applyQuality(level); }
+    }
+
+    /**
+     * Called by the RenderStats of a control class, starts watching the pulses if
+     * no instance is watching yet.
+     */
+    static void handleRedraw() {
+        QualityManager manager = instance;
+        if (null == manager || !Platform.isFxApplicationThread()) { return; }
+        manager.redrawn = true;
+        if (!manager.monitoring) { manager.updateMonitor(); }
+    }
+
+    /**
+     * Called by the RenderStats of a control class when an animation starts or
+     * stops, the monitor keeps running as long as an animation is active.
+     */
+    static void handleAnimation(final boolean started) {
+        QualityManager manager = instance;
+        if (null == manager || !Platform.isFxApplicationThread()) { return; }
+        manager.activeAnimations = Math.max(0, manager.activeAnimations + (started ? 1 : -1));
+        if (!manager.monitoring) { manager.updateMonitor(); }
+    }
+
+    private void updateMonitor() {
+        boolean watch = adaptive && !controls.isEmpty() && (activeAnimations > 0 || redrawn);
+        if (watch == monitoring) { return; }
+        monitoring  = watch;
+        lastPulse   = 0;
+        frames      = 0;
+        windowNanos = 0;
+        goodWindows = 0;
+        if (watch) {
+            monitor.start();
+        } else {
+            monitor.stop();
+        }
+    }
+
+    private void handlePulse(final long now) {
+        if (lastPulse > 0) {
+            windowNanos += now - lastPulse;
+            frames++;
+        }
+        lastPulse = now;
+        if (frames < WINDOW) { return; }
+
+        double averageMillis = windowNanos / 1e6 / frames;
+        frames      = 0;
+        windowNanos = 0;
+        // Stop at the end of a window without any work, otherwise the timer would request a pulse on every frame
+        boolean idle = 0 == activeAnimations && !redrawn;
+        redrawn = false;
+        if (idle) { updateMonitor(); }
+        if (windowsSinceRestore < Integer.MAX_VALUE) { windowsSinceRestore++; }
+        // Skip the window after a change, it still contains frames of the old level
+        if (cooldown > 0) {
+            cooldown--;
+            return;
+        }
+
+        QualityLevel level = getQualityLevel();
+        if (averageMillis > frameBudgetMillis * DEGRADE_FACTOR) {
+            goodWindows = 0;
+            if (level.lower() == level) { return; }
+            // Dropping a level that was just restored makes the next restore wait longer
+            if (windowsSinceRestore <= restoreWindows) { restoreWindows = Math.min(MAX_RESTORE_WINDOWS, restoreWindows * 2); }
+            cooldown = 1;
+            qualityLevel.set(level.lower());
+        } else if (averageMillis < frameBudgetMillis * RESTORE_FACTOR) {
+            if (level.higher() == level || ++goodWindows < restoreWindows) { return; }
+            goodWindows         = 0;
+            windowsSinceRestore = 0;
+            cooldown            = 1;
+            qualityLevel.set(level.higher());
+        } else {
+            goodWindows = 0;
+        }
+    }
+
+    // A typo in the system property must not keep the controls from being created
+    private static QualityLevel parseLevel(final String level) {
+        if (null == level || level.isBlank() || "adaptive".equalsIgnoreCase(level.trim())) { return null; }
+        try {
+            return QualityLevel.valueOf(level.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Unknown quality level '" + level + "' in " + QUALITY_PROPERTY + ", using adaptive quality, valid levels are " + Arrays.toString(QualityLevel.values()));
+            return null;
+        }
+    }
+}
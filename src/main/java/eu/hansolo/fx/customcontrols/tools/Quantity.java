@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * A physical quantity with its units, the first unit is the base unit.
+ * The converters between all pairs of units are created once up front.
+ */
+public class Quantity {
+    private final String            name;
+    private final Unit[]            units;
+    private final UnitConverter[][] converters;
+
+
+    // ******************** Constructors **************************************
+    public Quantity(final String name, final Unit baseUnit, final Unit... units) {
+        this.name     = name;
+        this.units    = new Unit[units.length + 1];
+        this.units[0] = baseUnit;
+        System.arraycopy(units, 0, this.units, 1, units.length);
+        this.converters = new UnitConverter[this.units.length][this.units.length];
+        for (int i = 0; i < this.units.length; i++) {
+            for (int j = 0; j < this.units.length; j++) {
+                converters[i][j] = new UnitConverter(this.units[i], this.units[j]);
+            }
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    public String getName() { return name; }
+
+    public Unit getBaseUnit() { return units[0]; }
+
+    public List<Unit> getUnits() { return Collections.unmodifiableList(Arrays.asList(units)); }
+
+    public Unit getUnit(final String symbol) {
+        for (Unit unit : units) {
+            if (unit.getSymbol().equals(symbol)) { return unit; }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the unit that follows the given unit, after the last unit it starts with the base unit again.
+     */
+    public Unit next(final Unit unit) { return units[(indexOf(unit) + 1) % units.length]; }
+
+    public UnitConverter getConverter(final Unit from, final Unit to) { return converters[indexOf(from)][indexOf(to)]; }
+
+    private int indexOf(final Unit unit) {
+        for (int i = 0; i < units.length; i++) {
+            if (units[i] == unit) { return i; }
+        }
+        throw new IllegalArgumentException("Unit " + unit + " is not part of " + name);
+    }
+
+    @Override public String toString() { return name; }
+}
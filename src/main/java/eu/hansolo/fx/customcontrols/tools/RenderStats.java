@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Render statistics of a control class, or of a single control instance with an
+ * id if per instance statistics are enabled with the system property
+ * eu.hansolo.fx.customcontrols.stats.perInstance=true. Every RenderStats is
+ * registered as platform MBean with the name
+ * eu.hansolo.fx.customcontrols:type=RenderStats,name=ControlClass[,id=...].
+ * Instance statistics are removed and unregistered again when they are released.
+ * Recording only updates striped counters and never blocks the FX application thread.
+ */
+public final class RenderStats implements RenderStatsMXBean {
+    public  static final String                   DOMAIN       = "eu.hansolo.fx.customcontrols";
+    private static final boolean                  PER_INSTANCE = Boolean.getBoolean("eu.hansolo.fx.customcontrols.stats.perInstance");
+    private static final Map<String, RenderStats> STATS        = new ConcurrentHashMap<>();
+    private        final String                   name;
+    private        final RenderStats              parent;
+    private        final LongAdder                redraws;
+    private        final LongAdder                redrawNanos;
+    private        final LongAdder                coalesced;
+    private        final LongAccumulator          maxRedrawNanos;
+    private        final LongAdder                activeAnimations;
+    private        final LongAdder                cacheHits;
+    private        final LongAdder                cacheMisses;
+    private volatile     long                     lastRedrawNanos;
+    // Number of controls using instance statistics, only changed within the map operations of STATS
+    private              int                      users;
+
+
+    // ******************** Constructors **************************************
+    private RenderStats(final String name, final RenderStats parent) {
+        this.name             = name;
+        this.parent           = parent;
+        this.redraws          = new LongAdder();
+        this.redrawNanos      = new LongAdder();
+        this.coalesced        = new LongAdder();
+        this.maxRedrawNanos   = new LongAccumulator(Math::max, 0);
+        this.activeAnimations = new LongAdder();
+        this.cacheHits        = new LongAdder();
+        this.cacheMisses      = new LongAdder();
+    }
+
+
+    // ******************** Methods *******************************************
+    public static RenderStats of(final Class<?> type) { return STATS.computeIfAbsent(type.getSimpleName(), key -> create(key, null)); }
+
+    /**
+     * Returns the statistics of the control instance with the given id if per
+     * instance statistics are enabled and an id is given, otherwise the statistics
+     * of the class. Instance statistics also record into the statistics of their class.
+     */
+    public static RenderStats of(final Class<?> type, final String id) {
+        RenderStats classStats = of(type);
+        if (!PER_INSTANCE || null == id || id.isEmpty()) { return classStats; }
+        return STATS.compute(type.getSimpleName() + "#" + id, (key, stats) -> {
+            RenderStats instanceStats = null == stats ? create(key, classStats) : stats;
+            instanceStats.users++;
+            return instanceStats;
+        });
+    }
+
+    /**
+     * Releases instance statistics returned by of(type, id). When the last control
+     * with that id released them, they are removed and their MBean is unregistered.
+     * The statistics of a class are never released.
+     */
+    public void release() {
+        if (null == parent) { return; }
+        STATS.computeIfPresent(name, (key, stats) -> {
+            if (stats != this || --users > 0) { return stats; }
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(key));
+            } catch (JMException | SecurityException e) {
+                // Was not published
+            }
+            return null;
+        });
+    }
+
+    public static boolean isPerInstance() { return PER_INSTANCE; }
+
+    public void redraw(final long nanos) {
+        redraws.increment();
+        redrawNanos.add(nanos);
+        maxRedrawNanos.accumulate(nanos);
+        lastRedrawNanos = nanos;
+        if (null == parent) {
+            QualityManager.handleRedraw();
+        } else {
+            parent.redraw(nanos);
+        }
+    }
+
+    public void coalesced() {
+        coalesced.increment();
+        if (null != parent) { parent.coalesced(); }
+    }
+
+    public void animationStarted() {
+        activeAnimations.increment();
+        if (null == parent) {
+            QualityManager.handleAnimation(true);
+        } else {
+            parent.animationStarted();
+        }
+    }
+
+    public void animationStopped() {
+        activeAnimations.decrement();
+        if (null == parent) {
+            QualityManager.handleAnimation(false);
+        } else {
+            parent.animationStopped();
+        }
+    }
+
+    public void cacheHit() {
+        cacheHits.increment();
+        if (null != parent) { parent.cacheHit(); }
+    }
+
+    public void cacheMiss() {
+        cacheMisses.increment();
+        if (null != parent) { parent.cacheMiss(); }
+    }
+
+    @Override public String getName() { return name; }
+
+    @Override public long getRedrawCount() { return redraws.sum(); }
+
+    @Override public long getCoalescedCount() { return coalesced.sum(); }
+
+    @Override public long getLastRedrawNanos() { return lastRedrawNanos; }
+
+    @Override public long getMaxRedrawNanos() { return maxRedrawNanos.get(); }
+
+    @Override public double getAverageRedrawNanos() {
+        long count = redraws.sum();
+        return 0 == count ? 0 : redrawNanos.sum() / (double) count;
+    }
+
+    @Override public long getActiveAnimations() { return activeAnimations.sum(); }
+
+    @Override public long getCacheHits() { return cacheHits.sum(); }
+
+    @Override public long getCacheMisses() { return cacheMisses.sum(); }
+
+    /**
+     * Resets all counters except the number of active animations which reflects
+     * the current state.
+     */
+    @Override public void reset() {
+        redraws.reset();
+        redrawNanos.reset();
+        coalesced.reset();
+        maxRedrawNanos.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        lastRedrawNanos = 0;
+    }
+
+    @Override public String toString() { return name; }
+
+    private static RenderStats create(final String key, final RenderStats parent) {
+        RenderStats stats = new RenderStats(key, parent);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(stats, objectName(key));
+        } catch (JMException | SecurityException e) {
+            // E.g. already registered by another class loader, the statistics are still recorded but not published
+        }
+        return stats;
+    }
+
+    private static ObjectName objectName(final String key) throws JMException {
+        int separator = key.indexOf('#');
+        return new ObjectName(separator < 0 ? DOMAIN + ":type=RenderStats,name=" + key
+                                            : DOMAIN + ":type=RenderStats,name=" + key.substring(0, separator) + ",id=" + ObjectName.quote(key.substring(separator + 1)));
+    }
+}
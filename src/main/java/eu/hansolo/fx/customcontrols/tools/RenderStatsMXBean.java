@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+
+/**
+ * Management interface of the RenderStats of one control class or instance.
+ * Times are in nanoseconds.
+ */
+public interface RenderStatsMXBean {
+    String getName();
+
+    long getRedrawCount();
+
+    long getCoalescedCount();
+
+    long getLastRedrawNanos();
+
+    long getMaxRedrawNanos();
+
+    double getAverageRedrawNanos();
+
+    long getActiveAnimations();
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    void reset();
+}
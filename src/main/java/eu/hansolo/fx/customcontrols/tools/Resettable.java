@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+
+/**
+ * Implemented by controls that can be recycled by the ControlPool.
+ * A call to reset() restores the state of an instance created with the
+ * default constructor (text, colors, state, handlers and animations) but
+ * keeps everything that is expensive to create like the skin.
+ * Properties that are bound will be unbound.
+ */
+public interface Resettable {
+    void reset();
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+/**
+ * Takes snapshots of many nodes and writes them as PNG files. The FX application
+ * thread only rasterizes a limited number of nodes per pulse into one reused
+ * WritableImage and copies the pixels into pooled IntBuffers. Encoding and
+ * writing the files via FileChannels is done on a pool of worker threads.
+ * If the workers fall behind, no new snapshots are taken until buffers were
+ * handed back, so the memory footprint stays bounded.
+ */
+public class SnapshotPipeline implements AutoCloseable {
+    private static final AtomicInteger         THREAD_COUNT = new AtomicInteger();
+    private        final int                   snapshotsPerPulse;
+    private        final int                   maxInFlight;
+    private        final PngEncoder            encoder;
+    private        final ExecutorService       encoders;
+    private        final Queue<Job>            pending;
+    private        final Queue<IntBuffer>      buffers;
+    private        final AtomicInteger         inFlight;
+    private        final AtomicBoolean         running;
+    private        final AtomicBoolean         closed;
+    private        final AnimationTimer        timer;
+    private        final SnapshotParameters    parameters;
+    private              WritableImage         image;
+
+
+    // ******************** Constructors **************************************
+    public SnapshotPipeline() {
+        this(8, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+    public SnapshotPipeline(final int snapshotsPerPulse, final int encoderThreads) {
+        if (snapshotsPerPulse < 1) { throw new IllegalArgumentException("snapshotsPerPulse must be at least 1"); }
+        if (encoderThreads < 1) { throw new IllegalArgumentException("encoderThreads must be at least 1"); }
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-encoder-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.snapshotsPerPulse = snapshotsPerPulse;
+        this.maxInFlight       = encoderThreads * 2;
+        this.encoder           = new PngEncoder();
+        this.encoders          = Executors.newFixedThreadPool(encoderThreads, threadFactory);
+        this.pending           = new ConcurrentLinkedQueue<>();
+        this.buffers           = new ConcurrentLinkedQueue<>();
+        this.inFlight          = new AtomicInteger();
+        this.running           = new AtomicBoolean();
+        this.closed            = new AtomicBoolean();
+        this.parameters        = new SnapshotParameters();
+        this.parameters.setFill(Color.TRANSPARENT);
+        this.timer             = new AnimationTimer() {
+            @Override public void handle(final long now) { processPending(); }
+        };
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Queues a snapshot of the given node that will be written as PNG to the
+     * given file. Can be called from any thread, the node will be rasterized
+     * on the FX application thread within the next pulses.
+     */
+    public CompletableFuture<Path> submit(final Node node, final Path file) {
+        if (null == node) { throw new IllegalArgumentException("Node cannot be null"); }
+        if (null == file) { throw new IllegalArgumentException("File cannot be null"); }
+        if (closed.get()) { throw new IllegalStateException("Pipeline is closed"); }
+        Job job = new Job(node, file);
+        pending.add(job);
+        if (running.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                timer.start();
+            } else {
+                Platform.runLater(timer::start);
+            }
+        }
+        return job.future;
+    }
+
+    /**
+     * Queues snapshots of all given nodes and completes when all files are written.
+     */
+    public CompletableFuture<List<Path>> submitAll(final List<? extends Node> nodes, final Function<Node, Path> fileFor) {
+        List<CompletableFuture<Path>> futures = new ArrayList<>(nodes.size());
+        for (Node node : nodes) { futures.add(submit(node, fileFor.apply(node))); }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<Path> files = new ArrayList<>(futures.size());
+            for (CompletableFuture<Path> future : futures) { files.add(future.join()); }
+            return files;
+        });
+    }
+
+    public Paint getFill() { return parameters.getFill(); }
+    public void setFill(final Paint fill) { parameters.setFill(fill); }
+
+    public int getPendingCount() { return pending.size(); }
+
+    public int getSnapshotsPerPulse() { return snapshotsPerPulse; }
+
+    /**
+     * Stops the pipeline, queued snapshots that were not taken yet will be cancelled.
+     */
+    @Override public void close() {
+        if (!closed.compareAndSet(false, true)) { return; }
+        Runnable stop = () -> {
+            timer.stop();
+            image = null;
+        };
+        if (Platform.isFxApplicationThread()) {
+            stop.run();
+        } else {
+            Platform.runLater(stop);
+        }
+        Job job;
+        while (null != (job = pending.poll())) { job.future.cancel(false); }
+        encoders.shutdown();
+        buffers.clear();
+    }
+
+    // Called on the FX application thread once per pulse
+    private void processPending() {
+        int taken = 0;
+        while (taken < snapshotsPerPulse && inFlight.get() < maxInFlight) {
+            Job job = pending.poll();
+            if (null == job) { break; }
+            rasterize(job);
+            taken++;
+        }
+        if (pending.isEmpty()) {
+            running.set(false);
+            // A submit between the check and the reset would have started the timer again
+            if (pending.isEmpty() || !running.compareAndSet(false, true)) { timer.stop(); }
+        }
+    }
+
+    private void rasterize(final Job job) {
+        try {
+            Bounds bounds = job.node.getBoundsInParent();
+            int    width  = (int) Math.ceil(bounds.getWidth());
+            int    height = (int) Math.ceil(bounds.getHeight());
+            if (width <= 0 || height <= 0) { throw new IllegalStateException("Node has no size"); }
+            if (null == image || image.getWidth() < width || image.getHeight() < height) {
+                image = new WritableImage(Math.max(width, null == image ? 0 : (int) image.getWidth()),
+                                          Math.max(height, null == image ? 0 : (int) image.getHeight()));
+            }
+            // The whole image is rendered, only the area of the node is read back
+            job.node.snapshot(parameters, image);
+            IntBuffer pixels = acquireBuffer(width * height);
+            image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, width);
+            inFlight.incrementAndGet();
+            encoders.execute(() -> encode(job, pixels, width, height));
+        } catch (RuntimeException e) {
+            job.future.completeExceptionally(e);
+        }
+    }
+
+    private void encode(final Job job, final IntBuffer pixels, final int width, final int height) {
+        try {
+            if (null != job.file.getParent()) { Files.createDirectories(job.file.getParent()); }
+            try (FileChannel channel = FileChannel.open(job.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                encoder.encode(pixels, width, height, channel);
+            }
+            job.future.complete(job.file);
+        } catch (IOException | RuntimeException e) {
+            job.future.completeExceptionally(e);
+        } finally {
+            releaseBuffer(pixels);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private IntBuffer acquireBuffer(final int capacity) {
+        IntBuffer buffer = buffers.poll();
+        if (null == buffer || buffer.capacity() < capacity) { buffer = IntBuffer.allocate(capacity); }
+        buffer.clear();
+        buffer.limit(capacity);
+        return buffer;
+    }
+
+    private void releaseBuffer(final IntBuffer buffer) {
+        if (!closed.get() && buffers.size() < maxInFlight) { buffers.add(buffer); }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Job {
+        private final Node                    node;
+        private final Path                    file;
+        private final CompletableFuture<Path> future;
+
+
+        // ******************** Constructors **********************************
+        Job(final Node node, final Path file) {
+            this.node   = node;
+            this.file   = file;
+            this.future = new CompletableFuture<>();
+        }
+    }
+}
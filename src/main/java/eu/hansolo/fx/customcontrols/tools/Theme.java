@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.scene.paint.Color;
+
+
+/**
+ * Immutable set of colors that will be pushed to all registered controls by the
+ * ThemeManager. The derived colors of the background are computed once when
+ * the theme is created.
+ */
+public final class Theme {
+    public static final Theme         DAY   = new Theme("Day", Color.web("#3a609be6"), Color.WHITESMOKE, Color.RED);
+    public static final Theme         NIGHT = new Theme("Night", Color.web("#1c2430e6"), Color.web("#b0bec5"), Color.web("#ff6f00"));
+    private       final String        name;
+    private       final Color         backgroundColor;
+    private       final Color         foregroundColor;
+    private       final Color         accentColor;
+    private       final DerivedColors derivedColors;
+
+
+    // ******************** Constructors **************************************
+    public Theme(final String name, final Color backgroundColor, final Color foregroundColor, final Color accentColor) {
+        if (null == backgroundColor || null == foregroundColor || null == accentColor) { throw new IllegalArgumentException("Theme colors cannot be null"); }
+        this.name            = name;
+        this.backgroundColor = backgroundColor;
+        this.foregroundColor = foregroundColor;
+        this.accentColor     = accentColor;
+        this.derivedColors   = DerivedColors.of(backgroundColor);
+    }
+
+
+    // ******************** Methods *******************************************
+    public String getName() { return name; }
+
+    public Color getBackgroundColor() { return backgroundColor; }
+
+    public Color getForegroundColor() { return foregroundColor; }
+
+    public Color getAccentColor() { return accentColor; }
+
+    public DerivedColors getDerivedColors() { return derivedColors; }
+
+    @Override public String toString() { return name; }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+
+/**
+ * Keeps weak references to all registered controls and applies a theme to all
+ * of them in one batch on the FX application thread, so the whole switch
+ * is rendered within one pulse.
+ */
+public class ThemeManager {
+    private static       ThemeManager   instance;
+    private        final Set<Themeable> controls;
+    private              Theme          theme;
+
+
+    // ******************** Constructors **************************************
+    public ThemeManager() {
+        this(Theme.DAY);
+    }
+    public ThemeManager(final Theme theme) {
+        if (null == theme) { throw new IllegalArgumentException("Theme cannot be null"); }
+        this.controls = Collections.newSetFromMap(new WeakHashMap<>());
+        this.theme    = theme;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static synchronized ThemeManager getInstance() {
+        if (null == instance) { instance = new ThemeManager(); }
+        return instance;
+    }
+
+    public Theme getTheme() { return theme; }
+    /**
+     * Applies the given theme to all registered controls. If called from another
+     * thread the theme will be applied later on the FX application thread.
+     */
+    public void setTheme(final Theme theme) {
+        if (null == theme) { throw new IllegalArgumentException("Theme cannot be null"); }
+        if (Platform.isFxApplicationThread()) {
+            applyTheme(theme);
+        } else {
+            Platform.runLater(() -> applyTheme(theme));
+        }
+    }
+
+    /**
+     * Registers the given control and applies the current theme to it. Controls
+     * are only weakly referenced and don't need to be unregistered.
+     */
+    public void register(final Themeable control) {
+        if (null == control) { return; }
+        controls.add(control);
+        control.applyTheme(theme);
+    }
+
+    public void unregister(final Themeable control) { controls.remove(control); }
+
+    public int getRegisteredCount() { return controls.size(); }
+
+    private void applyTheme(final Theme theme) {
+        this.theme = theme;
+        // Copy first, applying a theme could register or unregister controls
+        List<Themeable> snapshot = new ArrayList<>(controls);
+        for (Themeable control : snapshot) { control.applyTheme(theme); }
+    }
+}
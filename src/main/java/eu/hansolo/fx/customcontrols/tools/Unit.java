@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+/**
+ * A unit of a quantity that is defined by an affine mapping from the base unit
+ * of that quantity: value = base * factor + offset.
+ */
+public class Unit {
+    private final String symbol;
+    private final double factor;
+    private final double offset;
+
+
+    // ******************** Constructors **************************************
+    public Unit(final String symbol, final double factor) {
+        this(symbol, factor, 0);
+    }
+    public Unit(final String symbol, final double factor, final double offset) {
+        if (0 == factor || Double.isNaN(factor) || Double.isInfinite(factor)) { throw new IllegalArgumentException("factor must be a finite value != 0"); }
+        this.symbol = symbol;
+        this.factor = factor;
+        this.offset = offset;
+    }
+
+
+    // ******************** Methods *******************************************
+    public String getSymbol() { return symbol; }
+
+    public double getFactor() { return factor; }
+
+    public double getOffset() { return offset; }
+
+    public double fromBase(final double value) { return value * factor + offset; }
+
+    public double toBase(final double value) { return (value - offset) / factor; }
+
+    @Override public String toString() { return symbol; }
+}
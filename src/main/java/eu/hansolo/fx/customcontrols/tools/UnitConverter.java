@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+/**
+ * Converts values between two units with precomputed coefficients (y = x * factor + offset).
+ * The batch methods are simple counted loops over primitive arrays which the JIT can vectorize.
+ */
+public class UnitConverter {
+    private final Unit   from;
+    private final Unit   to;
+    private final double factor;
+    private final double offset;
+
+
+    // ******************** Constructors **************************************
+    public UnitConverter(final Unit from, final Unit to) {
+        this.from   = from;
+        this.to     = to;
+        this.factor = to.getFactor() / from.getFactor();
+        this.offset = to.getOffset() - from.getOffset() * this.factor;
+    }
+
+
+    // ******************** Methods *******************************************
+    public Unit getFrom() { return from; }
+
+    public Unit getTo() { return to; }
+
+    public double convert(final double value) { return from == to ? value : value * factor + offset; }
+
+    public void convert(final double[] src, final double[] dst) {
+        if (src.length != dst.length) { throw new IllegalArgumentException("src and dst must have the same length"); }
+        convert(src, 0, dst, 0, src.length);
+    }
+    public void convert(final double[] src, final int srcPos, final double[] dst, final int dstPos, final int length) {
+        if (srcPos < 0 || dstPos < 0 || length < 0 || srcPos + length > src.length || dstPos + length > dst.length) {
+            throw new IndexOutOfBoundsException("Range exceeds array bounds");
+        }
+        if (from == to) {
+            System.arraycopy(src, srcPos, dst, dstPos, length);
+            return;
+        }
+        final double f = factor;
+        final double o = offset;
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = src[srcPos + i] * f + o;
+        }
+    }
+}
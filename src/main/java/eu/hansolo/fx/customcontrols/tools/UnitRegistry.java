@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.tools;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+public class UnitRegistry {
+    public  static final Quantity              TEMPERATURE = new Quantity("Temperature", new Unit("°C", 1),
+                                                                          new Unit("°F", 1.8, 32),
+                                                                          new Unit("K", 1, 273.15));
+    public  static final Quantity              PRESSURE    = new Quantity("Pressure", new Unit("bar", 1),
+                                                                          new Unit("kPa", 100),
+                                                                          new Unit("psi", 14.503773773),
+                                                                          new Unit("Pa", 1e5));
+    public  static final Quantity              FLOW        = new Quantity("Flow", new Unit("m³/h", 1),
+                                                                          new Unit("l/min", 1000.0 / 60.0),
+                                                                          new Unit("l/s", 1.0 / 3.6),
+                                                                          new Unit("gpm", 4.402867539));
+    public  static final Quantity              ENERGY      = new Quantity("Energy", new Unit("kWh", 1),
+                                                                          new Unit("MJ", 3.6),
+                                                                          new Unit("BTU", 3412.141633),
+                                                                          new Unit("J", 3.6e6));
+    private static final Map<String, Quantity> QUANTITIES  = new ConcurrentHashMap<>();
+    static {
+        register(TEMPERATURE);
+        register(PRESSURE);
+        register(FLOW);
+        register(ENERGY);
+    }
+
+
+    private UnitRegistry() {}
+
+
+    public static void register(final Quantity quantity) { QUANTITIES.put(quantity.getName(), quantity); }
+
+    public static Quantity get(final String name) { return QUANTITIES.get(name); }
+
+    public static UnitConverter getConverter(final String quantity, final String fromSymbol, final String toSymbol) {
+        Quantity q = get(quantity);
+        if (null == q) { throw new IllegalArgumentException("Unknown quantity " + quantity); }
+        Unit from = q.getUnit(fromSymbol);
+        Unit to   = q.getUnit(toSymbol);
+        if (null == from || null == to) { throw new IllegalArgumentException("Unknown unit for " + quantity); }
+        return q.getConverter(from, to);
+    }
+}
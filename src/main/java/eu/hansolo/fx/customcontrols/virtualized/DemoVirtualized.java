@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.virtualized;
+
+import eu.hansolo.fx.customcontrols.controlskinbased.CustomControl;
+import eu.hansolo.fx.customcontrols.tools.InputRecorder;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+public class DemoVirtualized extends Application {
+    private static final int                                        NO_OF_ITEMS = 100_000;
+    private static final Color[]                                    COLORS      = { Color.LIME, Color.ORANGE, Color.RED, Color.DODGERBLUE };
+    private              VirtualTileGrid<StatusItem, CustomControl> grid;
+
+
+    @Override public void init() {
+        Random           rnd  = new Random(42);
+        List<StatusItem> data = new ArrayList<>(NO_OF_ITEMS);
+        for (int i = 0; i < NO_OF_ITEMS; i++) {
+            data.add(new StatusItem(rnd.nextBoolean(), COLORS[rnd.nextInt(COLORS.length)]));
+        }
+        ObservableList<StatusItem> items = FXCollections.observableList(data);
+
+        grid = new VirtualTileGrid<>(items, CustomControl::new, (led, item) -> {
+            led.setState(item.state);
+            led.setColor(item.color);
+        }, 24, 24, 4);
+    }
+
+    @Override public void start(final Stage stage) {
+        StackPane pane = new StackPane(grid);
+        pane.setPadding(new Insets(10));
+
+        Scene scene = new Scene(pane, 400, 400);
+        InputRecorder.recordIfRequested(scene, getClass().getName());
+
+        stage.setTitle("Virtualized Tile Grid (" + NO_OF_ITEMS + " items)");
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    @Override public void stop() {
+        Platform.exit();
+        System.exit(0);
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class StatusItem {
+        private final boolean state;
+        private final Color   color;
+
+
+        public StatusItem(final boolean state, final Color color) {
+            this.state = state;
+            this.color = color;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2021 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.customcontrols.virtualized;
+
+import eu.hansolo.fx.customcontrols.tools.Helper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+
+/**
+ * Shows a potentially huge list of items as tiles but only creates controls for
+ * the visible rows plus a margin of overscan rows. While scrolling the existing
+ * controls are recycled and the binder is called to rebind them (e.g. text,
+ * color, state or type) to the item they now represent. A control keeps its slot
+ * as long as its item stays in the visible range, so scrolling by one row only
+ * rebinds the controls of that row.
+ *
+ * @param <T> the type of the items in the data model
+ * @param <N> the type of the control that is used to visualize an item
+ */
+public class VirtualTileGrid<T, N extends Region> extends Region {
+    private static final int               DEFAULT_OVERSCAN_ROWS = 2;
+    private        final ObservableList<T> items;
+    private        final Supplier<N>       factory;
+    private        final BiConsumer<N, T>  binder;
+    private        final List<N>           cells;
+    private              int[]             boundIndices;
+    private              double            cellWidth;
+    private              double            cellHeight;
+    private              double            spacing;
+    private              int               overscanRows;
+    private              ScrollBar         scrollBar;
+    private              Pane              viewport;
+    private              Rectangle         clip;
+
+
+    // ******************** Constructors **************************************
+    public VirtualTileGrid(final ObservableList<T> items, final Supplier<N> factory, final BiConsumer<N, T> binder, final double cellWidth, final double cellHeight) {
+        this(items, factory, binder, cellWidth, cellHeight, 0);
+    }
+    public VirtualTileGrid(final ObservableList<T> items, final Supplier<N> factory, final BiConsumer<N, T> binder, final double cellWidth, final double cellHeight, final double spacing) {
+        this.items        = items;
+        this.factory      = factory;
+        this.binder       = binder;
+        this.cells        = new ArrayList<>();
+        this.boundIndices = new int[0];
+        this.cellWidth    = cellWidth;
+        this.cellHeight   = cellHeight;
+        this.spacing      = spacing;
+        this.overscanRows = DEFAULT_OVERSCAN_ROWS;
+
+        initGraphics();
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void initGraphics() {
+        getStyleClass().add("virtual-tile-grid");
+
+        clip = new Rectangle();
+
+        viewport = new Pane();
+        viewport.setClip(clip);
+
+        scrollBar = new ScrollBar();
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setMin(0);
+
+        getChildren().setAll(viewport, scrollBar);
+    }
+
+    private void registerListeners() {
+        items.addListener((ListChangeListener<T>) c -> {
+            Arrays.fill(boundIndices, -1);
+            requestLayout();
+        });
+        scrollBar.valueProperty().addListener(o -> setNeedsLayout(true));
+        addEventHandler(ScrollEvent.SCROLL, e -> scrollBar.setValue(Helper.clamp(scrollBar.getMin(), scrollBar.getMax(), scrollBar.getValue() - e.getDeltaY())));
+    }
+
+
+    // ******************** Methods *******************************************
+    public ObservableList<T> getItems() { return items; }
+
+    public int getOverscanRows() { return overscanRows; }
+    public void setOverscanRows(final int overscanRows) {
+        this.overscanRows = Math.max(0, overscanRows);
+        requestLayout();
+    }
+
+    public double getScrollPosition() { return scrollBar.getValue(); }
+    public void setScrollPosition(final double position) { scrollBar.setValue(Helper.clamp(scrollBar.getMin(), scrollBar.getMax(), position)); }
+
+    /**
+     * Returns the number of controls that have been created so far which only
+     * depends on the size of the viewport and never on the number of items.
+     */
+    public int getCellCount() { return cells.size(); }
+
+    /**
+     * Forces all visible controls to be rebound to their items, e.g. after
+     * the state of an item changed without the list being modified.
+     */
+    public void refresh() {
+        Arrays.fill(boundIndices, -1);
+        setNeedsLayout(true);
+    }
+
+    private void ensureCellCount(final int count) {
+        if (cells.size() >= count) { return; }
+        while (cells.size() < count) {
+            N cell = factory.get();
+            cell.setManaged(false);
+            cells.add(cell);
+        }
+        viewport.getChildren().setAll(cells);
+        // The mapping of indices to slots depends on the number of cells
+        boundIndices = new int[cells.size()];
+        Arrays.fill(boundIndices, -1);
+    }
+
+
+    // ******************** Layout ********************************************
+    @Override protected void layoutChildren() {
+        final double left           = getInsets().getLeft();
+        final double top            = getInsets().getTop();
+        final double width          = getWidth() - left - getInsets().getRight();
+        final double height         = getHeight() - top - getInsets().getBottom();
+        final double scrollBarWidth = scrollBar.prefWidth(-1);
+        final double viewportWidth  = Math.max(0, width - scrollBarWidth);
+        if (viewportWidth <= 0 || height <= 0) { return; }
+
+        scrollBar.resizeRelocate(left + viewportWidth, top, scrollBarWidth, height);
+        viewport.resizeRelocate(left, top, viewportWidth, height);
+        clip.setWidth(viewportWidth);
+        clip.setHeight(height);
+
+        final double stepX         = cellWidth + spacing;
+        final double stepY         = cellHeight + spacing;
+        final int    noOfItems     = items.size();
+        final int    columns       = Math.max(1, (int) ((viewportWidth + spacing) / stepX));
+        final int    rows          = (noOfItems + columns - 1) / columns;
+        final double contentHeight = Math.max(0, rows * stepY - spacing);
+
+        scrollBar.setMax(Math.max(0, contentHeight - height));
+        scrollBar.setVisibleAmount(height);
+        scrollBar.setUnitIncrement(stepY);
+        scrollBar.setBlockIncrement(height);
+        final double offset = Helper.clamp(scrollBar.getMin(), scrollBar.getMax(), scrollBar.getValue());
+
+        final int firstRow = Math.max(0, (int) (offset / stepY) - overscanRows);
+        final int lastRow  = Math.min(rows - 1, (int) ((offset + height) / stepY) + overscanRows);
+        final int start    = firstRow * columns;
+        final int end      = Math.min(noOfItems, (lastRow + 1) * columns);
+
+        ensureCellCount(((int) (height / stepY) + 2 + 2 * overscanRows) * columns);
+
+        final int noOfCells = cells.size();
+        for (int slot = 0; slot < noOfCells; slot++) {
+            final N   cell  = cells.get(slot);
+            final int index = start + Math.floorMod(slot - start, noOfCells);
+            if (index >= end) {
+                cell.setVisible(false);
+                continue;
+            }
+            if (boundIndices[slot] != index) {
+                binder.accept(cell, items.get(index));
+                boundIndices[slot] = index;
+            }
+            cell.resizeRelocate((index % columns) * stepX, (index / columns) * stepY - offset, cellWidth, cellHeight);
+            cell.setVisible(true);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 module eu.hansolo.fx.customcontrols {
     // Java
     requires java.base;
+    requires java.management;
+    requires transitive jdk.jfr;
 
     // Java-FX
     requires transitive javafx.base;
@@ -14,5 +16,7 @@ module eu.hansolo.fx.customcontrols {
     exports eu.hansolo.fx.customcontrols.controlskinbased;
     exports eu.hansolo.fx.customcontrols.regionbased;
     exports eu.hansolo.fx.customcontrols.canvasbased;
+    exports eu.hansolo.fx.customcontrols.virtualized;
+    exports eu.hansolo.fx.customcontrols.state;
     exports eu.hansolo.fx.customcontrols.tools;
 }
\ No newline at end of file